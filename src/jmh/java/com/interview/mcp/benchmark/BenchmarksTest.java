@@ -0,0 +1,69 @@
+package com.interview.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests that each benchmark measures the work it claims to, run once outside JMH
+ */
+class BenchmarksTest {
+
+    @Test
+    void callToolBenchmarkGetsToolResult() throws Exception {
+        CallToolBenchmark benchmark = new CallToolBenchmark();
+        benchmark.setUp();
+        try {
+            McpSchema.CallToolResult result = benchmark.callTool_1();
+
+            assertFalse(result.isError());
+            assertEquals(1, result.content().size());
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+
+    @Test
+    void codecBenchmarkEncodesSameRequestBothWays() throws Exception {
+        JsonRpcCodecBenchmark benchmark = new JsonRpcCodecBenchmark();
+        benchmark.payloadBytes = 1024;
+        benchmark.setUp();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        JsonNode asMap = objectMapper.readTree(benchmark.encodeToolCallRequestAsMap());
+
+        assertEquals("tools/call", asMap.get("method").asText());
+        assertTrue(asMap.at("/params/_meta/progressToken").isTextual());
+        assertTrue(benchmark.encodeToolCallRequest() > 0);
+    }
+
+    @Test
+    void codecBenchmarkDecodesPayloadOfRequestedSize() throws Exception {
+        JsonRpcCodecBenchmark benchmark = new JsonRpcCodecBenchmark();
+        benchmark.payloadBytes = 1024;
+        benchmark.setUp();
+
+        McpSchema.CallToolResult toolResult = (McpSchema.CallToolResult) benchmark.decodeToolCallResponse().result();
+        McpSchema.ReadResourceResult resourceResult =
+            (McpSchema.ReadResourceResult) benchmark.decodeReadResourceResponse().result();
+
+        assertEquals(1024, ((McpSchema.TextContent) toolResult.content().get(0)).text().length());
+        assertEquals(1, resourceResult.contents().size());
+    }
+
+    @Test
+    void registryBenchmarkFindsLastRegisteredTool() {
+        ToolRegistryBenchmark benchmark = new ToolRegistryBenchmark();
+        benchmark.toolCount = 1000;
+        benchmark.setUp();
+
+        assertTrue(benchmark.findTool().isPresent());
+        assertEquals(1000, benchmark.getAvailableTools().size());
+        assertEquals(100, benchmark.getServerTools().size());
+    }
+}
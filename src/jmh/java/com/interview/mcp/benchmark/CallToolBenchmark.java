@@ -0,0 +1,74 @@
+package com.interview.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.HttpMcpServerConnection;
+import com.interview.mcp.service.McpServerConnection;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end tools/call round trips over HTTP against an in-process stub server,
+ * at several client concurrency levels. SampleTime reports latency percentiles,
+ * Throughput the calls per second across all benchmark threads.
+ *
+ * Every call carries distinct arguments so nothing can be coalesced or cached.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallToolBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private StubMcpServer server;
+    private Scheduler scheduler;
+    private McpServerConnection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new StubMcpServer(10);
+        scheduler = Schedulers.newBoundedElastic(64, 10_000, "benchmark");
+        connection = new HttpMcpServerConnection("benchmark", server.getUrl(), WebClient.create(),
+                                                 new ObjectMapper(), scheduler);
+        connection.initialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        scheduler.dispose();
+        server.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public McpSchema.CallToolResult callTool_1() {
+        return callTool();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public McpSchema.CallToolResult callTool_16() {
+        return callTool();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public McpSchema.CallToolResult callTool_64() {
+        return callTool();
+    }
+
+    private McpSchema.CallToolResult callTool() {
+        return connection.callToolAsync("tool-1", Map.of("query", "q-" + sequence.incrementAndGet())).block();
+    }
+}
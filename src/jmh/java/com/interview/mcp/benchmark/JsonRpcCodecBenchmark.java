@@ -0,0 +1,138 @@
+package com.interview.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.JsonRpcEncoder;
+import com.interview.mcp.service.ResourceContentStreamDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encoding of JSON-RPC requests and decoding of tools/call and resources/read
+ * responses, without any I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonRpcCodecBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int payloadBytes;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ObjectWriter writer;
+    private JsonRpcEncoder encoder;
+    private final AtomicLong requestIds = new AtomicLong();
+    private Map<String, Object> arguments;
+
+    private JavaType callToolResponseType;
+    private JavaType readResourceResponseType;
+    private byte[] callToolResponse;
+    private byte[] readResourceResponse;
+    private List<byte[]> readResourceChunks;
+
+    @Setup
+    public void setUp() throws Exception {
+        writer = objectMapper.writer();
+        encoder = new JsonRpcEncoder(objectMapper);
+        arguments = Map.of("query", "weather in Paris", "limit", 10, "filters", Map.of("units", "metric"));
+
+        callToolResponseType = objectMapper.getTypeFactory().constructParametricType(
+            McpSchema.JsonRpcResponse.class, McpSchema.CallToolResult.class);
+        readResourceResponseType = objectMapper.getTypeFactory().constructParametricType(
+            McpSchema.JsonRpcResponse.class, McpSchema.ReadResourceResult.class);
+
+        String text = "x".repeat(payloadBytes);
+        callToolResponse = objectMapper.writeValueAsBytes(Map.of(
+            "jsonrpc", "2.0",
+            "id", "1",
+            "result", Map.of("content", List.of(Map.of("type", "text", "text", text)), "isError", false)));
+
+        byte[] blob = new byte[payloadBytes];
+        new Random(42).nextBytes(blob);
+        readResourceResponse = objectMapper.writeValueAsBytes(Map.of(
+            "jsonrpc", "2.0",
+            "id", "1",
+            "result", Map.of("contents", List.of(Map.of(
+                "uri", "file:///blob.bin",
+                "mimeType", "application/octet-stream",
+                "blob", Base64.getEncoder().encodeToString(blob))))));
+
+        // Network-sized chunks, as the HTTP transport would receive them
+        readResourceChunks = new ArrayList<>();
+        for (int offset = 0; offset < readResourceResponse.length; offset += 8192) {
+            int length = Math.min(8192, readResourceResponse.length - offset);
+            byte[] chunk = new byte[length];
+            System.arraycopy(readResourceResponse, offset, chunk, 0, length);
+            readResourceChunks.add(chunk);
+        }
+    }
+
+    /**
+     * The request as a map with a random UUID id, serialized by Jackson
+     */
+    @Benchmark
+    public byte[] encodeToolCallRequestAsMap() throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        request.put("jsonrpc", "2.0");
+        request.put("id", UUID.randomUUID().toString());
+        request.put("method", "tools/call");
+        request.put("params", Map.of(
+            "name", "search",
+            "arguments", arguments,
+            "_meta", Map.of("progressToken", request.get("id"))));
+        return writer.writeValueAsBytes(request);
+    }
+
+    /**
+     * The request as the transports now encode it, into a pooled buffer
+     */
+    @Benchmark
+    public int encodeToolCallRequest() {
+        // Asks for progress like the map did, so both write the same request
+        long id = requestIds.incrementAndGet();
+        DataBuffer buffer = encoder.encode(McpSchema.JsonRpcRequest.toolCall(id, "search", arguments, id));
+        int length = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return length;
+    }
+
+    @Benchmark
+    public McpSchema.JsonRpcResponse<?> decodeToolCallResponse() throws Exception {
+        return objectMapper.readValue(callToolResponse, callToolResponseType);
+    }
+
+    @Benchmark
+    public McpSchema.JsonRpcResponse<?> decodeReadResourceResponse() throws Exception {
+        return objectMapper.readValue(readResourceResponse, readResourceResponseType);
+    }
+
+    @Benchmark
+    public void streamReadResourceContent(Blackhole blackhole) {
+        Flux<DataBuffer> body = Flux.fromIterable(readResourceChunks)
+            .map(DefaultDataBufferFactory.sharedInstance::wrap);
+        for (DataBuffer buffer : ResourceContentStreamDecoder.decode(body).toIterable()) {
+            blackhole.consume(buffer.readableByteCount());
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
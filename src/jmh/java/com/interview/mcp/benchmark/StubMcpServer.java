@@ -0,0 +1,121 @@
+package com.interview.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal in-process MCP server over HTTP for benchmarks.
+ *
+ * Answers initialize, tools/list, resources/list, tools/call (echoing the arguments
+ * as text content) and ping on POST /mcp. Work per request is kept small so the
+ * measurements are dominated by the client.
+ */
+public class StubMcpServer implements AutoCloseable {
+
+    static {
+        // Headers and body are written separately; without this, delayed ACKs add ~40ms per call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final JsonNode toolsResult;
+
+    public StubMcpServer(int toolCount) throws IOException {
+        this.toolsResult = objectMapper.valueToTree(Map.of("tools", tools(toolCount)));
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.executor = Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 2));
+        server.setExecutor(executor);
+        server.createContext("/mcp", this::handle);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tool definitions shaped like those of a real server, with a small input schema
+     */
+    public static List<Map<String, Object>> tools(int toolCount) {
+        List<Map<String, Object>> tools = new ArrayList<>(toolCount);
+        for (int i = 0; i < toolCount; i++) {
+            tools.add(Map.of(
+                "name", "tool-" + i,
+                "description", "Benchmark tool number " + i,
+                "inputSchema", Map.of(
+                    "type", "object",
+                    "properties", Map.of("query", Map.of("type", "string")),
+                    "required", List.of("query"))));
+        }
+        return tools;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readTree(body);
+        }
+
+        byte[] response = request.has("id")
+            ? objectMapper.writeValueAsBytes(respond(request))
+            : new byte[0];
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.length > 0 ? 200 : 202, response.length > 0 ? response.length : -1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private ObjectNode respond(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+
+        switch (request.path("method").asText()) {
+            case "initialize" -> response.set("result", objectMapper.valueToTree(Map.of(
+                "protocolVersion", "2024-11-05",
+                "capabilities", Map.of("tools", Map.of()),
+                "serverInfo", Map.of("name", "stub", "version", "1.0.0"))));
+            case "tools/list" -> response.set("result", toolsResult);
+            case "resources/list" -> response.set("result", objectMapper.valueToTree(Map.of("resources", List.of())));
+            case "tools/call" -> {
+                ObjectNode content = objectMapper.createObjectNode();
+                content.put("type", "text");
+                content.put("text", request.path("params").path("arguments").toString());
+                ObjectNode result = objectMapper.createObjectNode();
+                result.putArray("content").add(content);
+                result.put("isError", false);
+                response.set("result", result);
+            }
+            case "ping" -> response.putObject("result");
+            default -> {
+                ObjectNode error = response.putObject("error");
+                error.put("code", -32601);
+                error.put("message", "Method not found");
+            }
+        }
+        return response;
+    }
+}
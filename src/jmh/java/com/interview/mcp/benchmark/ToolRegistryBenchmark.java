@@ -0,0 +1,78 @@
+package com.interview.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.model.McpToolInfo;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.ToolRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tool lookups served by the registry, and the cost of rebuilding it when one
+ * server's tool list changes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ToolRegistryBenchmark {
+
+    private static final int SERVER_COUNT = 10;
+
+    @Param({"1000", "5000"})
+    public int toolCount;
+
+    private ToolRegistry registry;
+    private List<McpSchema.Tool> serverTools;
+    private String lastServer;
+    private String lastTool;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        registry = new ToolRegistry();
+        ReflectionTestUtils.setField(registry, "objectMapper", objectMapper);
+        registry.initialize();
+
+        int toolsPerServer = toolCount / SERVER_COUNT;
+        serverTools = objectMapper.convertValue(StubMcpServer.tools(toolsPerServer),
+            objectMapper.getTypeFactory().constructCollectionType(List.class, McpSchema.Tool.class));
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            registry.register("server-" + i, "http://localhost:" + (3000 + i), serverTools);
+        }
+        lastServer = "server-" + (SERVER_COUNT - 1);
+        lastTool = "tool-" + (toolsPerServer - 1);
+    }
+
+    @Benchmark
+    public List<McpToolInfo> getAvailableTools() {
+        return registry.getTools();
+    }
+
+    @Benchmark
+    public byte[] getAvailableToolsJson() {
+        return registry.getToolsJson();
+    }
+
+    @Benchmark
+    public Optional<McpToolInfo> findTool() {
+        return registry.findTool(lastServer, lastTool);
+    }
+
+    @Benchmark
+    public List<McpToolInfo> getServerTools() {
+        return registry.getTools(lastServer);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void reRegisterServer() {
+        registry.register(lastServer, "http://localhost:3009", serverTools);
+    }
+}
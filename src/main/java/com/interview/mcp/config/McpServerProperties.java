@@ -3,8 +3,13 @@ package com.interview.mcp.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @Component
@@ -12,6 +17,10 @@ import java.util.List;
 public class McpServerProperties {
 
     private List<ServerConfig> servers = new ArrayList<>();
+    private Execution execution = new Execution();
+    private Http http = new Http();
+    private Cache cache = new Cache();
+    private Content content = new Content();
 
     public List<ServerConfig> getServers() {
         return servers;
@@ -21,6 +30,38 @@ public class McpServerProperties {
         this.servers = servers;
     }
 
+    public Execution getExecution() {
+        return execution;
+    }
+
+    public void setExecution(Execution execution) {
+        this.execution = execution;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
+    public void setHttp(Http http) {
+        this.http = http;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public Content getContent() {
+        return content;
+    }
+
+    public void setContent(Content content) {
+        this.content = content;
+    }
+
 
     public static class ServerConfig {
         private String name;
@@ -28,6 +69,12 @@ public class McpServerProperties {
         private TransportType transport = TransportType.HTTP;
         private String command; // For STDIO transport
         private List<String> args = new ArrayList<>(); // For STDIO transport
+        private Integer maxConcurrentCalls; // Bulkhead override, defaults to mcp.execution
+        private Integer maxQueuedCalls; // Bulkhead override, defaults to mcp.execution
+        private Map<String, ToolConfig> tools = new HashMap<>(); // Per-tool settings, keyed by tool name
+        private Pool pool; // HTTP connection pool overrides, defaults to mcp.http.pool
+        private CircuitBreakerSettings circuitBreaker; // Overrides, defaults to mcp.execution.circuit-breaker
+        private RetrySettings retry; // Overrides, defaults to mcp.execution.retry
 
         // Constructors
         public ServerConfig() {}
@@ -53,10 +100,493 @@ public class McpServerProperties {
 
         public List<String> getArgs() { return args; }
         public void setArgs(List<String> args) { this.args = args; }
+
+        public Integer getMaxConcurrentCalls() { return maxConcurrentCalls; }
+        public void setMaxConcurrentCalls(Integer maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+
+        public Integer getMaxQueuedCalls() { return maxQueuedCalls; }
+        public void setMaxQueuedCalls(Integer maxQueuedCalls) { this.maxQueuedCalls = maxQueuedCalls; }
+
+        public Pool getPool() { return pool; }
+        public void setPool(Pool pool) { this.pool = pool; }
+
+        public CircuitBreakerSettings getCircuitBreaker() { return circuitBreaker; }
+        public void setCircuitBreaker(CircuitBreakerSettings circuitBreaker) { this.circuitBreaker = circuitBreaker; }
+
+        public RetrySettings getRetry() { return retry; }
+        public void setRetry(RetrySettings retry) { this.retry = retry; }
+
+        public Map<String, ToolConfig> getTools() { return tools; }
+        public void setTools(Map<String, ToolConfig> tools) { this.tools = tools; }
+
+        /**
+         * Settings for one tool, or null when the tool has none
+         */
+        public ToolConfig getTool(String toolName) {
+            return tools != null ? tools.get(toolName) : null;
+        }
+    }
+
+    /**
+     * Per-tool settings, bound from mcp.servers[].tools.<tool-name>.*
+     */
+    public static class ToolConfig {
+        private boolean cache; // Opt in to result caching; ignored unless the tool is idempotent
+        private Duration cacheTtl; // Defaults to mcp.cache.default-ttl
+        private Duration timeout; // Defaults to mcp.execution.default-tool-timeout
+        private boolean idempotent; // Safe to send more than once: enables retries after any transport error
+        private boolean hedge; // Send a second request when the first is slow; needs idempotent
+        private RetrySettings retry; // Overrides, defaults to the server's retry settings
+
+        // Getters and Setters
+        public boolean isCache() { return cache; }
+        public void setCache(boolean cache) { this.cache = cache; }
+
+        public boolean isIdempotent() { return idempotent; }
+        public void setIdempotent(boolean idempotent) { this.idempotent = idempotent; }
+
+        public boolean isHedge() { return hedge; }
+        public void setHedge(boolean hedge) { this.hedge = hedge; }
+
+        public RetrySettings getRetry() { return retry; }
+        public void setRetry(RetrySettings retry) { this.retry = retry; }
+
+        public Duration getCacheTtl() { return cacheTtl; }
+        public void setCacheTtl(Duration cacheTtl) { this.cacheTtl = cacheTtl; }
+
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    }
+
+    /**
+     * Execution model for MCP work, bound from mcp.execution.*
+     */
+    public static class Execution {
+        private ExecutionMode mode = ExecutionMode.BOUNDED;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4; // Reached before anything is queued
+        private int queueCapacity = 1000;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private int maxConcurrentCallsPerServer = 64;
+        private int maxQueuedCallsPerServer = 256;
+        private Duration defaultToolTimeout = Duration.ofSeconds(60);
+        private Duration initializeTimeout = Duration.ofSeconds(30);
+        private Duration startupTimeout = Duration.ofSeconds(10);
+        private CircuitBreakerSettings circuitBreaker = CircuitBreakerSettings.defaults();
+        private ConcurrencyLimitSettings concurrencyLimit = new ConcurrencyLimitSettings();
+        private RetrySettings retry = RetrySettings.defaults();
+        private RetryBudgetSettings retryBudget = new RetryBudgetSettings();
+        private HedgeSettings hedging = new HedgeSettings();
+        private HealthCheckSettings healthCheck = new HealthCheckSettings();
+
+        // Getters and Setters
+        public ExecutionMode getMode() { return mode; }
+        public void setMode(ExecutionMode mode) { this.mode = mode; }
+
+        public int getMaxPoolSize() { return maxPoolSize; }
+        public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+        public Duration getKeepAlive() { return keepAlive; }
+        public void setKeepAlive(Duration keepAlive) { this.keepAlive = keepAlive; }
+
+        public int getMaxConcurrentCallsPerServer() { return maxConcurrentCallsPerServer; }
+        public void setMaxConcurrentCallsPerServer(int maxConcurrentCallsPerServer) { this.maxConcurrentCallsPerServer = maxConcurrentCallsPerServer; }
+
+        public int getMaxQueuedCallsPerServer() { return maxQueuedCallsPerServer; }
+        public void setMaxQueuedCallsPerServer(int maxQueuedCallsPerServer) { this.maxQueuedCallsPerServer = maxQueuedCallsPerServer; }
+
+        public Duration getDefaultToolTimeout() { return defaultToolTimeout; }
+        public void setDefaultToolTimeout(Duration defaultToolTimeout) { this.defaultToolTimeout = defaultToolTimeout; }
+
+        public Duration getInitializeTimeout() { return initializeTimeout; }
+        public void setInitializeTimeout(Duration initializeTimeout) { this.initializeTimeout = initializeTimeout; }
+
+        public Duration getStartupTimeout() { return startupTimeout; }
+        public void setStartupTimeout(Duration startupTimeout) { this.startupTimeout = startupTimeout; }
+
+        public CircuitBreakerSettings getCircuitBreaker() { return circuitBreaker; }
+        public void setCircuitBreaker(CircuitBreakerSettings circuitBreaker) { this.circuitBreaker = circuitBreaker; }
+
+        public ConcurrencyLimitSettings getConcurrencyLimit() { return concurrencyLimit; }
+        public void setConcurrencyLimit(ConcurrencyLimitSettings concurrencyLimit) { this.concurrencyLimit = concurrencyLimit; }
+
+        public RetrySettings getRetry() { return retry; }
+        public void setRetry(RetrySettings retry) { this.retry = retry; }
+
+        public RetryBudgetSettings getRetryBudget() { return retryBudget; }
+        public void setRetryBudget(RetryBudgetSettings retryBudget) { this.retryBudget = retryBudget; }
+
+        public HedgeSettings getHedging() { return hedging; }
+        public void setHedging(HedgeSettings hedging) { this.hedging = hedging; }
+
+        public HealthCheckSettings getHealthCheck() { return healthCheck; }
+        public void setHealthCheck(HealthCheckSettings healthCheck) { this.healthCheck = healthCheck; }
+    }
+
+    /**
+     * Retry policy for failed calls, bound from mcp.execution.retry.*, mcp.servers[].retry.*
+     * and mcp.servers[].tools.<tool-name>.retry.*. Unset fields fall back to the next level.
+     */
+    public static class RetrySettings {
+        private Integer maxRetries; // Retries after the first attempt, 0 disables
+        private Duration initialBackoff; // Doubled on every retry
+        private Duration maxBackoff;
+        private Double jitter; // Fraction of the backoff randomly added or removed, 0 to 1
+
+        public static RetrySettings defaults() {
+            RetrySettings settings = new RetrySettings();
+            settings.maxRetries = 2;
+            settings.initialBackoff = Duration.ofMillis(100);
+            settings.maxBackoff = Duration.ofSeconds(2);
+            settings.jitter = 0.5;
+            return settings;
+        }
+
+        /**
+         * Copy of these settings with every unset field taken from the defaults
+         */
+        public RetrySettings withDefaults(RetrySettings defaults) {
+            RetrySettings merged = new RetrySettings();
+            merged.maxRetries = maxRetries != null ? maxRetries : defaults.maxRetries;
+            merged.initialBackoff = initialBackoff != null ? initialBackoff : defaults.initialBackoff;
+            merged.maxBackoff = maxBackoff != null ? maxBackoff : defaults.maxBackoff;
+            merged.jitter = jitter != null ? jitter : defaults.jitter;
+            return merged;
+        }
+
+        // Getters and Setters
+        public Integer getMaxRetries() { return maxRetries; }
+        public void setMaxRetries(Integer maxRetries) { this.maxRetries = maxRetries; }
+
+        public Duration getInitialBackoff() { return initialBackoff; }
+        public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+
+        public Duration getMaxBackoff() { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+
+        public Double getJitter() { return jitter; }
+        public void setJitter(Double jitter) { this.jitter = jitter; }
+    }
+
+    /**
+     * Token bucket shared by the retries and hedges of one server, bound from
+     * mcp.execution.retry-budget.*
+     */
+    public static class RetryBudgetSettings {
+        private int maxTokens = 10; // Every failed attempt takes one token
+        private double tokenRatio = 0.1; // Tokens returned per successful attempt
+        // Retries and hedges are only sent while more than half of maxTokens are left
+
+        // Getters and Setters
+        public int getMaxTokens() { return maxTokens; }
+        public void setMaxTokens(int maxTokens) { this.maxTokens = maxTokens; }
+
+        public double getTokenRatio() { return tokenRatio; }
+        public void setTokenRatio(double tokenRatio) { this.tokenRatio = tokenRatio; }
+    }
+
+    /**
+     * Hedged requests for tools marked hedge, bound from mcp.execution.hedging.*
+     */
+    public static class HedgeSettings {
+        private double percentile = 0.95; // Latency percentile after which the second request is sent
+        private Duration minDelay = Duration.ofMillis(20);
+        private int minSamples = 20; // Successful calls needed before the percentile is trusted
+        private Duration initialDelay = Duration.ofSeconds(1); // Used until then
+
+        // Getters and Setters
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+
+        public Duration getMinDelay() { return minDelay; }
+        public void setMinDelay(Duration minDelay) { this.minDelay = minDelay; }
+
+        public int getMinSamples() { return minSamples; }
+        public void setMinSamples(int minSamples) { this.minSamples = minSamples; }
+
+        public Duration getInitialDelay() { return initialDelay; }
+        public void setInitialDelay(Duration initialDelay) { this.initialDelay = initialDelay; }
+    }
+
+    /**
+     * Background pings of connected servers and reconnects of failed ones, bound from
+     * mcp.execution.health-check.*
+     */
+    public static class HealthCheckSettings {
+        private boolean enabled = true;
+        private Duration interval = Duration.ofSeconds(30);
+        private Duration timeout = Duration.ofSeconds(5); // A ping slower than this counts as failed
+        private Duration initialBackoff = Duration.ofSeconds(1); // Before the first reconnect, doubled after each failure
+        private Duration maxBackoff = Duration.ofMinutes(2);
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Duration getInterval() { return interval; }
+        public void setInterval(Duration interval) { this.interval = interval; }
+
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+        public Duration getInitialBackoff() { return initialBackoff; }
+        public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+
+        public Duration getMaxBackoff() { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+    }
+
+    /**
+     * Per-server circuit breaker settings, bound from mcp.execution.circuit-breaker.* and
+     * mcp.servers[].circuit-breaker.*. Unset server fields fall back to mcp.execution.
+     */
+    public static class CircuitBreakerSettings {
+        private Boolean enabled;
+        private Integer failureRateThreshold; // Percent of failed calls in the window that opens the circuit
+        private Integer slowCallRateThreshold; // Percent of slow calls in the window that opens the circuit
+        private Duration slowCallDuration; // Calls taking at least this long count as slow
+        private Integer slidingWindowSize; // Number of most recent calls the rates are computed over
+        private Integer minimumCalls; // Calls needed in the window before the rates are evaluated
+        private Duration openDuration; // How long calls are refused before trial calls are let through
+        private Integer halfOpenCalls; // Trial calls that must all succeed to close the circuit again
+
+        public static CircuitBreakerSettings defaults() {
+            CircuitBreakerSettings settings = new CircuitBreakerSettings();
+            settings.enabled = true;
+            settings.failureRateThreshold = 50;
+            settings.slowCallRateThreshold = 100;
+            settings.slowCallDuration = Duration.ofSeconds(10);
+            settings.slidingWindowSize = 50;
+            settings.minimumCalls = 10;
+            settings.openDuration = Duration.ofSeconds(30);
+            settings.halfOpenCalls = 3;
+            return settings;
+        }
+
+        /**
+         * Copy of these settings with every unset field taken from the defaults
+         */
+        public CircuitBreakerSettings withDefaults(CircuitBreakerSettings defaults) {
+            CircuitBreakerSettings merged = new CircuitBreakerSettings();
+            merged.enabled = enabled != null ? enabled : defaults.enabled;
+            merged.failureRateThreshold = failureRateThreshold != null ? failureRateThreshold : defaults.failureRateThreshold;
+            merged.slowCallRateThreshold = slowCallRateThreshold != null ? slowCallRateThreshold : defaults.slowCallRateThreshold;
+            merged.slowCallDuration = slowCallDuration != null ? slowCallDuration : defaults.slowCallDuration;
+            merged.slidingWindowSize = slidingWindowSize != null ? slidingWindowSize : defaults.slidingWindowSize;
+            merged.minimumCalls = minimumCalls != null ? minimumCalls : defaults.minimumCalls;
+            merged.openDuration = openDuration != null ? openDuration : defaults.openDuration;
+            merged.halfOpenCalls = halfOpenCalls != null ? halfOpenCalls : defaults.halfOpenCalls;
+            return merged;
+        }
+
+        // Getters and Setters
+        public Boolean getEnabled() { return enabled; }
+        public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+
+        public Integer getFailureRateThreshold() { return failureRateThreshold; }
+        public void setFailureRateThreshold(Integer failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+
+        public Integer getSlowCallRateThreshold() { return slowCallRateThreshold; }
+        public void setSlowCallRateThreshold(Integer slowCallRateThreshold) { this.slowCallRateThreshold = slowCallRateThreshold; }
+
+        public Duration getSlowCallDuration() { return slowCallDuration; }
+        public void setSlowCallDuration(Duration slowCallDuration) { this.slowCallDuration = slowCallDuration; }
+
+        public Integer getSlidingWindowSize() { return slidingWindowSize; }
+        public void setSlidingWindowSize(Integer slidingWindowSize) { this.slidingWindowSize = slidingWindowSize; }
+
+        public Integer getMinimumCalls() { return minimumCalls; }
+        public void setMinimumCalls(Integer minimumCalls) { this.minimumCalls = minimumCalls; }
+
+        public Duration getOpenDuration() { return openDuration; }
+        public void setOpenDuration(Duration openDuration) { this.openDuration = openDuration; }
+
+        public Integer getHalfOpenCalls() { return halfOpenCalls; }
+        public void setHalfOpenCalls(Integer halfOpenCalls) { this.halfOpenCalls = halfOpenCalls; }
+    }
+
+    /**
+     * Adaptive (AIMD) concurrency limit applied within each server's bulkhead,
+     * bound from mcp.execution.concurrency-limit.*
+     */
+    public static class ConcurrencyLimitSettings {
+        private boolean enabled = true;
+        private int initialLimit = 16;
+        private int minLimit = 1; // The upper bound is the server's max-concurrent-calls
+        private Duration latencyThreshold = Duration.ofSeconds(5); // Slower calls shrink the limit
+        private double backoffRatio = 0.9; // Factor applied to the limit on a failed or slow call
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getInitialLimit() { return initialLimit; }
+        public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+        public int getMinLimit() { return minLimit; }
+        public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+        public Duration getLatencyThreshold() { return latencyThreshold; }
+        public void setLatencyThreshold(Duration latencyThreshold) { this.latencyThreshold = latencyThreshold; }
+
+        public double getBackoffRatio() { return backoffRatio; }
+        public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
     }
 
     
+    /**
+     * HTTP client settings, bound from mcp.http.*
+     */
+    public static class Http {
+        // Largest single JSON-RPC response (or batch element) the decoder will buffer
+        private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+        // Pool settings for servers without their own, and for generic API calls
+        private Pool pool = Pool.defaults();
+
+        // Getters and Setters
+        public DataSize getMaxInMemorySize() { return maxInMemorySize; }
+        public void setMaxInMemorySize(DataSize maxInMemorySize) { this.maxInMemorySize = maxInMemorySize; }
+
+        public Pool getPool() { return pool; }
+        public void setPool(Pool pool) { this.pool = pool; }
+    }
+
+    /**
+     * HTTP connection pool and protocol settings, bound from mcp.http.pool.* and
+     * mcp.servers[].pool.*. Unset server fields fall back to mcp.http.pool.
+     */
+    public static class Pool {
+        private Integer maxConnections;
+        private Integer pendingAcquireMaxCount; // Requests allowed to wait for a connection
+        private Duration pendingAcquireTimeout;
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration evictionInterval; // Background eviction of idle/expired connections, 0 disables
+        private Boolean keepAlive;
+        private Duration connectTimeout;
+        private Duration responseTimeout; // Longest silence while waiting for a response
+        private List<HttpVersion> protocols; // Several entries negotiate (ALPN / h2c upgrade)
+        private Integer maxConcurrentStreams; // Per HTTP/2 connection
+
+        public static Pool defaults() {
+            Pool pool = new Pool();
+            pool.maxConnections = 100;
+            pool.pendingAcquireMaxCount = 1000;
+            pool.pendingAcquireTimeout = Duration.ofSeconds(10);
+            pool.maxIdleTime = Duration.ofSeconds(30);
+            pool.maxLifeTime = Duration.ofMinutes(10);
+            pool.evictionInterval = Duration.ofSeconds(30);
+            pool.keepAlive = true;
+            pool.connectTimeout = Duration.ofSeconds(5);
+            pool.responseTimeout = Duration.ofMinutes(2);
+            pool.protocols = List.of(HttpVersion.HTTP11);
+            pool.maxConcurrentStreams = 100;
+            return pool;
+        }
+
+        /**
+         * Copy of these settings with every unset field taken from the defaults
+         */
+        public Pool withDefaults(Pool defaults) {
+            Pool merged = new Pool();
+            merged.maxConnections = maxConnections != null ? maxConnections : defaults.maxConnections;
+            merged.pendingAcquireMaxCount = pendingAcquireMaxCount != null ? pendingAcquireMaxCount : defaults.pendingAcquireMaxCount;
+            merged.pendingAcquireTimeout = pendingAcquireTimeout != null ? pendingAcquireTimeout : defaults.pendingAcquireTimeout;
+            merged.maxIdleTime = maxIdleTime != null ? maxIdleTime : defaults.maxIdleTime;
+            merged.maxLifeTime = maxLifeTime != null ? maxLifeTime : defaults.maxLifeTime;
+            merged.evictionInterval = evictionInterval != null ? evictionInterval : defaults.evictionInterval;
+            merged.keepAlive = keepAlive != null ? keepAlive : defaults.keepAlive;
+            merged.connectTimeout = connectTimeout != null ? connectTimeout : defaults.connectTimeout;
+            merged.responseTimeout = responseTimeout != null ? responseTimeout : defaults.responseTimeout;
+            merged.protocols = protocols != null && !protocols.isEmpty() ? protocols : defaults.protocols;
+            merged.maxConcurrentStreams = maxConcurrentStreams != null ? maxConcurrentStreams : defaults.maxConcurrentStreams;
+            return merged;
+        }
+
+        // Getters and Setters
+        public Integer getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(Integer maxConnections) { this.maxConnections = maxConnections; }
+
+        public Integer getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+        public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+
+        public Duration getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+
+        public Duration getMaxIdleTime() { return maxIdleTime; }
+        public void setMaxIdleTime(Duration maxIdleTime) { this.maxIdleTime = maxIdleTime; }
+
+        public Duration getMaxLifeTime() { return maxLifeTime; }
+        public void setMaxLifeTime(Duration maxLifeTime) { this.maxLifeTime = maxLifeTime; }
+
+        public Duration getEvictionInterval() { return evictionInterval; }
+        public void setEvictionInterval(Duration evictionInterval) { this.evictionInterval = evictionInterval; }
+
+        public Boolean getKeepAlive() { return keepAlive; }
+        public void setKeepAlive(Boolean keepAlive) { this.keepAlive = keepAlive; }
+
+        public Duration getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+        public Duration getResponseTimeout() { return responseTimeout; }
+        public void setResponseTimeout(Duration responseTimeout) { this.responseTimeout = responseTimeout; }
+
+        public List<HttpVersion> getProtocols() { return protocols; }
+        public void setProtocols(List<HttpVersion> protocols) { this.protocols = protocols; }
+
+        public Integer getMaxConcurrentStreams() { return maxConcurrentStreams; }
+        public void setMaxConcurrentStreams(Integer maxConcurrentStreams) { this.maxConcurrentStreams = maxConcurrentStreams; }
+    }
+
+    /**
+     * Tool result cache limits, bound from mcp.cache.*
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxEntries = 10000;
+        private DataSize maxSize = DataSize.ofMegabytes(64); // Estimated from the text of the results
+        private Duration defaultTtl = Duration.ofMinutes(5);
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+        public DataSize getMaxSize() { return maxSize; }
+        public void setMaxSize(DataSize maxSize) { this.maxSize = maxSize; }
+
+        public Duration getDefaultTtl() { return defaultTtl; }
+        public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+    }
+
+    /**
+     * Binary tool content written to disk for callers that ask for handles, bound from mcp.content.*
+     */
+    public static class Content {
+        private String spillDirectory = System.getProperty("java.io.tmpdir") + "/mcp-content";
+        private Duration spillTtl = Duration.ofMinutes(10); // Files are deleted once this old
+
+        // Getters and Setters
+        public String getSpillDirectory() { return spillDirectory; }
+        public void setSpillDirectory(String spillDirectory) { this.spillDirectory = spillDirectory; }
+
+        public Duration getSpillTtl() { return spillTtl; }
+        public void setSpillTtl(Duration spillTtl) { this.spillTtl = spillTtl; }
+    }
+
     public enum TransportType {
-        HTTP, STDIO
+        HTTP, STREAMABLE_HTTP, STDIO
+    }
+
+    public enum ExecutionMode {
+        BOUNDED, VIRTUAL
+    }
+
+    public enum HttpVersion {
+        HTTP11, H2, H2C
     }
 }
\ No newline at end of file
@@ -1,13 +1,43 @@
 package com.interview.mcp.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.interview.mcp.model.*;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.BinaryContentStore;
 import com.interview.mcp.service.McpClientService;
+import com.interview.mcp.service.McpTracing;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -19,9 +49,54 @@ public class McpClientController {
 
     private static final Logger logger = LoggerFactory.getLogger(McpClientController.class);
 
+    /**
+     * Optional time budget for a tool call, e.g. "1500" (milliseconds), "2s" or "PT2S"
+     */
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+    // Envelope of a passed-through tool result, around the data the server sent
+    private static final byte[] PASSTHROUGH_SUCCESS_START =
+        "{\"success\":true,\"message\":\"Success\",\"data\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PASSTHROUGH_ERROR_START =
+        "{\"success\":false,\"message\":\"Tool execution failed\",\"data\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PASSTHROUGH_END = "}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * How long a resource download may stream
+     */
+    private static final Duration RESOURCE_DOWNLOAD_TIMEOUT = Duration.ofMinutes(10);
+
+    /**
+     * Resource chunks read ahead of a client that is still being written to
+     */
+    private static final int RESOURCE_CHUNK_PREFETCH = 4;
+
     @Autowired
     private McpClientService mcpClientService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BinaryContentStore binaryContentStore;
+
+    /**
+     * Tool calls continue the trace of the HTTP request that started them
+     */
+    @Autowired(required = false)
+    private McpTracing tracing = McpTracing.NOOP;
+
+    /**
+     * Streamed events must each fit on one line, whatever the indent setting
+     */
+    private ObjectWriter compactWriter;
+
+    @PostConstruct
+    public void initialize() {
+        compactWriter = objectMapper.writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+    }
+
     /**
      * Get application health and status
      * 
@@ -31,11 +106,13 @@ public class McpClientController {
     public ResponseEntity<Map<String, Object>> health() {
         List<McpServerInfo> servers = mcpClientService.getConnectedServers();
         int connectedCount = (int) servers.stream().mapToLong(s -> s.isConnected() ? 1 : 0).sum();
+        int connectingCount = (int) servers.stream().filter(s -> "CONNECTING".equals(s.getState())).count();
 
         return ResponseEntity.ok(Map.of(
             "status", "UP",
             "totalServers", servers.size(),
             "connectedServers", connectedCount,
+            "connectingServers", connectingCount,
             "timestamp", System.currentTimeMillis()
         ));
     }
@@ -50,7 +127,7 @@ public class McpClientController {
      * }
      */
     @PostMapping("/connect")
-    public CompletableFuture<ResponseEntity<McpConnectionResult>> connectToServer(
+    public Mono<ResponseEntity<McpConnectionResult>> connectToServer(
             @RequestBody Map<String, String> request) {
 
         String serverUrl = request.get("serverUrl");
@@ -58,13 +135,13 @@ public class McpClientController {
 
         if (serverUrl == null || serverUrl.trim().isEmpty()) {
             McpConnectionResult errorResult = new McpConnectionResult(false, "Server URL is required", null);
-            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResult));
+            return Mono.just(ResponseEntity.badRequest().body(errorResult));
         }
 
         logger.info("Received request to connect to MCP server: {}", serverUrl);
 
         return mcpClientService.connectToMcpServer(serverUrl, serverName)
-            .thenApply(result -> {
+            .map(result -> {
                 if (result.isSuccess()) {
                     return ResponseEntity.ok(result);
                 } else {
@@ -100,15 +177,36 @@ public class McpClientController {
         ));
     }
 
+    /**
+     * Fetch again the tool and resource lists of a server. Only the lists the server
+     * reported as changed are fetched, unless force is set.
+     * 
+     * POST /api/mcp/servers/{serverName}/refresh?force=false
+     */
+    @PostMapping("/servers/{serverName}/refresh")
+    public Mono<ResponseEntity<Map<String, Object>>> refreshServerCatalog(
+            @PathVariable String serverName,
+            @RequestParam(defaultValue = "false") boolean force) {
+        return mcpClientService.refreshCatalog(serverName, force)
+            .map(refreshed -> refreshed
+                ? ResponseEntity.ok(Map.<String, Object>of(
+                    "success", true,
+                    "serverName", serverName,
+                    "toolCount", mcpClientService.getServerTools(serverName).size()))
+                : ResponseEntity.notFound().build());
+    }
+
     /**
      * Get list of all available tools from all connected servers
      * 
      * GET /api/mcp/tools
      */
     @GetMapping("/tools")
-    public ResponseEntity<List<McpToolInfo>> getAvailableTools() {
-        List<McpToolInfo> tools = mcpClientService.getAvailableTools();
-        return ResponseEntity.ok(tools);
+    public ResponseEntity<byte[]> getAvailableTools() {
+        // Served from the registry's snapshot, serialized once per tool list change
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(mcpClientService.getAvailableToolsJson());
     }
 
     /**
@@ -120,10 +218,15 @@ public class McpClientController {
      *   "toolName": "tool-name",
      *   "parameters": { ... }
      * }
+     * Header (optional): X-Request-Timeout: 2s
+     * Query (optional): binary=file to get images, audio and resource blobs as handles
+     * for GET /api/mcp/content/{handle} instead of inline base64
      */
     @PostMapping("/tools/call")
-    public CompletableFuture<ResponseEntity<McpApiCallResult>> callTool(
-            @RequestBody Map<String, Object> request) {
+    public Mono<ResponseEntity<McpApiCallResult>> callTool(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) String requestTimeout,
+            @RequestParam(value = "binary", defaultValue = "inline") String binary) {
 
         String serverName = (String) request.get("serverName");
         String toolName = (String) request.get("toolName");
@@ -132,20 +235,337 @@ public class McpClientController {
 
         if (serverName == null || toolName == null) {
             McpApiCallResult errorResult = new McpApiCallResult(false, "serverName and toolName are required", null);
-            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResult));
+            return Mono.just(ResponseEntity.badRequest().body(errorResult));
         }
 
+        Duration deadline;
+        try {
+            deadline = parseRequestTimeout(requestTimeout);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().body(new McpApiCallResult(false, e.getMessage(), null)));
+        }
+
+        if (!"inline".equals(binary) && !"file".equals(binary)) {
+            McpApiCallResult errorResult = new McpApiCallResult(false, "binary must be inline or file", null);
+            return Mono.just(ResponseEntity.badRequest().body(errorResult));
+        }
+        boolean spill = "file".equals(binary);
+
         logger.info("Received request to call tool {} on server {} with parameters: {}", 
                    toolName, serverName, parameters);
 
-        return mcpClientService.callTool(serverName, toolName, parameters)
-            .thenApply(result -> {
+        return mcpClientService.callTool(serverName, toolName, parameters, deadline)
+            .map(result -> spill ? withSpilledContent(result) : result)
+            .map(result -> {
                 if (result.isSuccess()) {
                     return ResponseEntity.ok(result);
                 } else {
                     return ResponseEntity.status(500).body(result);
                 }
-            });
+            })
+            .contextWrite(tracing::withCurrentObservation);
+    }
+
+    // A new result, as the one from the service may be cached and shared
+    private McpApiCallResult withSpilledContent(McpApiCallResult result) {
+        if (!result.isSuccess()) {
+            return result;
+        }
+        return new McpApiCallResult(true, result.getMessage(), binaryContentStore.spill(result.getData()));
+    }
+
+    /**
+     * Download a binary payload of a tool result called with binary=file
+     * 
+     * GET /api/mcp/content/{handle}
+     */
+    @GetMapping("/content/{handle}")
+    public ResponseEntity<Resource> getContent(@PathVariable String handle) {
+        return binaryContentStore.find(handle)
+            .map(file -> {
+                MediaType mediaType = toMediaType(file.mimeType());
+                return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .contentLength(file.size())
+                    .<Resource>body(new FileSystemResource(file.path()));
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Delete a binary payload before it expires
+     * 
+     * DELETE /api/mcp/content/{handle}
+     */
+    @DeleteMapping("/content/{handle}")
+    public ResponseEntity<Map<String, Object>> deleteContent(@PathVariable String handle) {
+        boolean success = binaryContentStore.delete(handle);
+        return ResponseEntity.ok(Map.of(
+            "success", success,
+            "message", success ? "Content deleted" : "Content not found or already expired"
+        ));
+    }
+
+    /**
+     * Call a tool and forward its result without decoding it. The server's result
+     * object, content, isError and anything else it holds, is written as the data of
+     * the usual envelope byte for byte as it arrived.
+     * 
+     * POST /api/mcp/tools/call?passthrough=true
+     * Body and X-Request-Timeout header as for /tools/call
+     */
+    @PostMapping(value = "/tools/call", params = "passthrough=true")
+    public Mono<ResponseEntity<Resource>> callToolPassthrough(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) String requestTimeout) {
+
+        String serverName = (String) request.get("serverName");
+        String toolName = (String) request.get("toolName");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> parameters = (Map<String, Object>) request.get("parameters");
+
+        if (serverName == null || toolName == null) {
+            return Mono.just(passthroughResponse(new McpApiCallResult(false, "serverName and toolName are required", null), 400));
+        }
+
+        Duration deadline;
+        try {
+            deadline = parseRequestTimeout(requestTimeout);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(passthroughResponse(new McpApiCallResult(false, e.getMessage(), null), 400));
+        }
+
+        logger.info("Received request to pass through tool {} on server {} with parameters: {}",
+                   toolName, serverName, parameters);
+
+        return mcpClientService.callToolRaw(serverName, toolName, parameters, deadline)
+            .map(result -> passthroughResponse(result, result.isSuccess() ? 200 : 500))
+            .contextWrite(tracing::withCurrentObservation);
+    }
+
+    /**
+     * The envelope is written from fixed fragments around the result bytes, and the
+     * buffer holding them is released once the body has been written
+     */
+    private ResponseEntity<Resource> passthroughResponse(McpApiCallResult result, int status) {
+        Resource body;
+        if (result.getData() instanceof McpSchema.RawCallToolResult raw) {
+            body = new InputStreamResource(new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(raw.isError() ? PASSTHROUGH_ERROR_START : PASSTHROUGH_SUCCESS_START),
+                raw.json().asInputStream(true),
+                new ByteArrayInputStream(PASSTHROUGH_END)))));
+        } else {
+            try {
+                body = new ByteArrayResource(compactWriter.writeValueAsBytes(result));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize tool call result", e);
+            }
+        }
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Call a tool and stream its progress as Server-Sent Events; the last event, named
+     * "result", carries the final result
+     * 
+     * POST /api/mcp/tools/call/stream
+     * Accept: text/event-stream
+     * Body and X-Request-Timeout header as for /tools/call
+     */
+    @PostMapping(value = "/tools/call/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> callToolStreamingEvents(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) String requestTimeout) {
+        ResponseEntity<Flux<McpToolCallEvent>> events = streamToolCall(request, requestTimeout);
+        return ResponseEntity.status(events.getStatusCode())
+            .body(events.getBody().map(event -> ServerSentEvent.builder(toJson(event)).event(event.getType()).build()));
+    }
+
+    /**
+     * Call a tool and stream its progress as newline-delimited JSON, one event per line
+     * 
+     * POST /api/mcp/tools/call/stream
+     * Accept: application/x-ndjson
+     */
+    @PostMapping(value = "/tools/call/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<String>> callToolStreamingNdjson(
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) String requestTimeout) {
+        ResponseEntity<Flux<McpToolCallEvent>> events = streamToolCall(request, requestTimeout);
+        return ResponseEntity.status(events.getStatusCode())
+            .body(events.getBody().map(this::toJson));
+    }
+
+    private String toJson(McpToolCallEvent event) {
+        try {
+            return compactWriter.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize tool call event", e);
+        }
+    }
+
+    private ResponseEntity<Flux<McpToolCallEvent>> streamToolCall(Map<String, Object> request, String requestTimeout) {
+        String serverName = (String) request.get("serverName");
+        String toolName = (String) request.get("toolName");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> parameters = (Map<String, Object>) request.get("parameters");
+
+        if (serverName == null || toolName == null) {
+            return ResponseEntity.badRequest().body(Flux.just(McpToolCallEvent.result(
+                new McpApiCallResult(false, "serverName and toolName are required", null))));
+        }
+
+        Duration deadline;
+        try {
+            deadline = parseRequestTimeout(requestTimeout);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Flux.just(McpToolCallEvent.result(
+                new McpApiCallResult(false, e.getMessage(), null))));
+        }
+
+        logger.info("Received request to stream tool {} on server {} with parameters: {}",
+                   toolName, serverName, parameters);
+
+        // The status is sent before the tool finishes, so failures are reported in the result event
+        return ResponseEntity.ok(mcpClientService.callToolStreaming(serverName, toolName, parameters, deadline)
+            .contextWrite(tracing::withCurrentObservation));
+    }
+
+    /**
+     * Media type of content a server described, application/octet-stream when it gave
+     * none or one that cannot be parsed
+     */
+    private static MediaType toMediaType(String mimeType) {
+        if (mimeType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(mimeType);
+        } catch (InvalidMediaTypeException e) {
+            logger.debug("Serving content with invalid mimeType {} as application/octet-stream", mimeType);
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    /**
+     * Parse the X-Request-Timeout header, null when absent
+     */
+    private static Duration parseRequestTimeout(String requestTimeout) {
+        if (requestTimeout == null) {
+            return null;
+        }
+        Duration deadline;
+        try {
+            deadline = DurationStyle.detectAndParse(requestTimeout.trim());
+        } catch (IllegalArgumentException e) {
+            deadline = Duration.ZERO;
+        }
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException(REQUEST_TIMEOUT_HEADER + " must be a positive duration such as 1500 or 2s");
+        }
+        return deadline;
+    }
+
+    /**
+     * Call several tools on one MCP server in a single JSON-RPC batch
+     * 
+     * POST /api/mcp/tools/call/batch
+     * Body: {
+     *   "serverName": "server-name",
+     *   "calls": [
+     *     { "toolName": "tool-name", "parameters": { ... } },
+     *     ...
+     *   ]
+     * }
+     */
+    @PostMapping("/tools/call/batch")
+    public Mono<ResponseEntity<McpApiCallResult>> callToolsBatch(
+            @RequestBody Map<String, Object> request) {
+
+        String serverName = (String) request.get("serverName");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> calls = (List<Map<String, Object>>) request.get("calls");
+
+        if (serverName == null || calls == null || calls.isEmpty()
+                || calls.stream().anyMatch(call -> call.get("toolName") == null)) {
+            McpApiCallResult errorResult = new McpApiCallResult(false,
+                "serverName and a non-empty list of calls with toolName are required", null);
+            return Mono.just(ResponseEntity.badRequest().body(errorResult));
+        }
+
+        @SuppressWarnings("unchecked")
+        List<McpSchema.ToolCall> toolCalls = calls.stream()
+            .map(call -> new McpSchema.ToolCall(
+                (String) call.get("toolName"),
+                (Map<String, Object>) call.get("parameters")))
+            .toList();
+
+        logger.info("Received request to call {} tools in batch on server {}", toolCalls.size(), serverName);
+
+        return mcpClientService.callTools(serverName, toolCalls)
+            .map(result -> {
+                if (result.isSuccess()) {
+                    return ResponseEntity.ok(result);
+                } else {
+                    return ResponseEntity.status(500).body(result);
+                }
+            })
+            .contextWrite(tracing::withCurrentObservation);
+    }
+
+    /**
+     * Stream the content of a resource from an MCP server
+     * 
+     * GET /api/mcp/resources/{serverName}/read?uri=file:///path/to/resource
+     * 
+     * The body is the raw resource payload (text as UTF-8, blobs as decoded bytes),
+     * forwarded chunk by chunk as it arrives from the server. The servlet writes block,
+     * so they run on the bounded elastic scheduler, which is meant for blocking work and
+     * reads only a few chunks ahead of a slow client; request threads, Netty event loops
+     * and the MCP execution pool never wait for the download.
+     */
+    @GetMapping("/resources/{serverName}/read")
+    public ResponseEntity<ResponseBodyEmitter> readResource(
+            @PathVariable String serverName,
+            @RequestParam String uri) {
+
+        if (!mcpClientService.hasServer(serverName)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        logger.info("Received request to stream resource {} from server {}", uri, serverName);
+
+        MediaType mediaType = mcpClientService.findResource(serverName, uri)
+            .map(McpSchema.Resource::mimeType)
+            .map(McpClientController::toMediaType)
+            .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        // Spring MVC would collect a Flux into a list for any but streaming media types
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(RESOURCE_DOWNLOAD_TIMEOUT.toMillis());
+        Disposable.Swap subscription = Disposables.swap();
+        // A client that goes away or a timeout ends the exchange with the server as well
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        subscription.update(mcpClientService.readResourceContent(serverName, uri)
+            .publishOn(Schedulers.boundedElastic(), RESOURCE_CHUNK_PREFETCH)
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+            .contextWrite(tracing::withCurrentObservation)
+            .subscribe(
+                buffer -> {
+                    try {
+                        // Written straight from the buffer, which is released once the stream is closed
+                        emitter.send(new InputStreamResource(buffer.asInputStream(true)), MediaType.APPLICATION_OCTET_STREAM);
+                    } catch (IOException | IllegalStateException e) {
+                        // The container ends the request and reports it through onError
+                        DataBufferUtils.release(buffer);
+                        subscription.dispose();
+                    }
+                },
+                emitter::completeWithError,
+                emitter::complete));
+
+        return ResponseEntity.ok().contentType(mediaType).body(emitter);
     }
 
     /**
@@ -160,7 +580,7 @@ public class McpClientController {
      * }
      */
     @PostMapping("/call")
-    public CompletableFuture<ResponseEntity<McpApiCallResult>> callApiEndpoint(
+    public Mono<ResponseEntity<McpApiCallResult>> callApiEndpoint(
             @RequestBody Map<String, Object> request) {
 
         String serverUrl = (String) request.get("serverUrl");
@@ -171,14 +591,14 @@ public class McpClientController {
         if (serverUrl == null || method == null || endpoint == null) {
             McpApiCallResult errorResult = new McpApiCallResult(false, 
                 "serverUrl, method, and endpoint are required", null);
-            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResult));
+            return Mono.just(ResponseEntity.badRequest().body(errorResult));
         }
 
         logger.info("Received request to call {} {} on server {} with payload: {}", 
                    method, endpoint, serverUrl, payload);
 
         return mcpClientService.callApiEndpoint(serverUrl, method, endpoint, payload)
-            .thenApply(result -> {
+            .map(result -> {
                 if (result.isSuccess()) {
                     return ResponseEntity.ok(result);
                 } else {
@@ -197,10 +617,7 @@ public class McpClientController {
             @PathVariable String serverName) {
 
         // Try to list tools to test connectivity
-        List<McpToolInfo> tools = mcpClientService.getAvailableTools()
-            .stream()
-            .filter(tool -> tool.getServerName().equals(serverName))
-            .toList();
+        List<McpToolInfo> tools = mcpClientService.getServerTools(serverName);
 
         boolean connected = !tools.isEmpty();
 
@@ -223,16 +640,8 @@ public class McpClientController {
             @PathVariable String serverName, 
             @PathVariable String toolName) {
 
-        McpToolInfo tool = mcpClientService.getAvailableTools()
-            .stream()
-            .filter(t -> t.getServerName().equals(serverName) && t.getName().equals(toolName))
-            .findFirst()
-            .orElse(null);
-
-        if (tool != null) {
-            return ResponseEntity.ok(tool);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+        return mcpClientService.findTool(serverName, toolName)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -7,7 +7,16 @@ public class McpServerInfo {
     private String name;
     private String url;
     private boolean connected;
+    private String state = "CONNECTED"; // CONNECTING, CONNECTED, DISCONNECTED or FAILED
+    private String lastError; // Why the last connection attempt failed, null otherwise
     private int toolCount;
+    private Long pingLatencyMs; // Round trip of the last health check ping, null before the first
+    private long uptimeSeconds; // Since the server last came up, 0 while it is down
+    private String circuitState = "CLOSED"; // CLOSED, HALF_OPEN or OPEN
+    private int failureRate = -1; // Percent of recent calls that failed, -1 until enough calls were made
+    private Integer concurrencyLimit; // Adaptive limit, null until the first call
+    private int activeCalls;
+    private int queuedCalls;
 
     public McpServerInfo() {}
 
@@ -28,6 +37,33 @@ public class McpServerInfo {
     public boolean isConnected() { return connected; }
     public void setConnected(boolean connected) { this.connected = connected; }
 
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
     public int getToolCount() { return toolCount; }
     public void setToolCount(int toolCount) { this.toolCount = toolCount; }
+
+    public Long getPingLatencyMs() { return pingLatencyMs; }
+    public void setPingLatencyMs(Long pingLatencyMs) { this.pingLatencyMs = pingLatencyMs; }
+
+    public long getUptimeSeconds() { return uptimeSeconds; }
+    public void setUptimeSeconds(long uptimeSeconds) { this.uptimeSeconds = uptimeSeconds; }
+
+    public String getCircuitState() { return circuitState; }
+    public void setCircuitState(String circuitState) { this.circuitState = circuitState; }
+
+    public int getFailureRate() { return failureRate; }
+    public void setFailureRate(int failureRate) { this.failureRate = failureRate; }
+
+    public Integer getConcurrencyLimit() { return concurrencyLimit; }
+    public void setConcurrencyLimit(Integer concurrencyLimit) { this.concurrencyLimit = concurrencyLimit; }
+
+    public int getActiveCalls() { return activeCalls; }
+    public void setActiveCalls(int activeCalls) { this.activeCalls = activeCalls; }
+
+    public int getQueuedCalls() { return queuedCalls; }
+    public void setQueuedCalls(int queuedCalls) { this.queuedCalls = queuedCalls; }
 }
\ No newline at end of file
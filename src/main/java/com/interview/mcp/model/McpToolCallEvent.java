@@ -0,0 +1,50 @@
+package com.interview.mcp.model;
+
+/**
+ * One event of a streamed tool call: progress reported by the server while the tool
+ * runs, then the final result as the last event
+ */
+public class McpToolCallEvent {
+    public static final String PROGRESS = "progress";
+    public static final String RESULT = "result";
+
+    private String type;
+    private Double progress;
+    private Double total;
+    private String message;
+    private McpApiCallResult result;
+
+    public McpToolCallEvent() {}
+
+    public static McpToolCallEvent progress(double progress, Double total, String message) {
+        McpToolCallEvent event = new McpToolCallEvent();
+        event.type = PROGRESS;
+        event.progress = progress;
+        event.total = total;
+        event.message = message;
+        return event;
+    }
+
+    public static McpToolCallEvent result(McpApiCallResult result) {
+        McpToolCallEvent event = new McpToolCallEvent();
+        event.type = RESULT;
+        event.result = result;
+        return event;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Double getProgress() { return progress; }
+    public void setProgress(Double progress) { this.progress = progress; }
+
+    public Double getTotal() { return total; }
+    public void setTotal(Double total) { this.total = total; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public McpApiCallResult getResult() { return result; }
+    public void setResult(McpApiCallResult result) { this.result = result; }
+}
@@ -0,0 +1,177 @@
+package com.interview.mcp.schema;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary payload of an image, audio clip or resource blob. The base64 text a server
+ * sends is decoded into a direct buffer, outside the Java heap, so the decoded bytes
+ * are never scanned by the garbage collector; they are encoded again only when written
+ * as JSON. The memory is freed once the last reference is gone.
+ *
+ * Where the parser reads the response bytes themselves, as for STDIO responses and
+ * single JSON responses over HTTP, the text is decoded straight from that input and
+ * never held as a String. Batch results and streamed JSON arrays are split into
+ * elements by Spring's tokenizer, which buffers each string value, and responses sent
+ * as SSE events arrive as event text: there the base64 text is on the heap until
+ * its element has been decoded.
+ *
+ * A payload spilled to disk keeps only its handle and size, and is written as
+ * {"handle": ..., "size": ...} in place of the base64 text.
+ */
+@JsonSerialize(using = BinaryData.Serializer.class)
+@JsonDeserialize(using = BinaryData.Deserializer.class)
+public final class BinaryData {
+
+    // Servers differ on padding, so it is accepted but not required
+    private static final Base64Variant BASE64 = Base64Variants.MIME_NO_LINEFEEDS
+        .withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ByteBuffer bytes;
+    private final String handle;
+    private final long size;
+
+    private BinaryData(ByteBuffer bytes, String handle, long size) {
+        this.bytes = bytes;
+        this.handle = handle;
+        this.size = size;
+    }
+
+    public static BinaryData of(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return new BinaryData(buffer.asReadOnlyBuffer(), null, bytes.length);
+    }
+
+    /**
+     * Stand-in for a payload that was written to disk under the given handle
+     */
+    public static BinaryData spilled(String handle, long size) {
+        return new BinaryData(null, handle, size);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isSpilled() {
+        return handle != null;
+    }
+
+    public String handle() {
+        return handle;
+    }
+
+    /**
+     * The payload as a read-only buffer of its own, positioned at the start
+     */
+    public ByteBuffer asByteBuffer() {
+        if (bytes == null) {
+            throw new IllegalStateException("Payload was spilled to disk as " + handle);
+        }
+        return bytes.duplicate();
+    }
+
+    public InputStream asInputStream() {
+        return new ByteBufferBackedInputStream(asByteBuffer());
+    }
+
+    public byte[] toByteArray() {
+        ByteBuffer buffer = asByteBuffer();
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.get(copy);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return isSpilled() ? "BinaryData[" + size + " bytes, spilled as " + handle + "]" : "BinaryData[" + size + " bytes]";
+    }
+
+    public static final class Deserializer extends JsonDeserializer<BinaryData> {
+
+        @Override
+        public BinaryData deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                return (BinaryData) context.handleUnexpectedToken(BinaryData.class, parser);
+            }
+            ByteBuffer decoded;
+            try (PooledBufferOutputStream out = new PooledBufferOutputStream()) {
+                parser.readBinaryValue(BASE64, out);
+                decoded = out.toBuffer();
+            }
+            return new BinaryData(decoded.asReadOnlyBuffer(), null, decoded.remaining());
+        }
+    }
+
+    public static final class Serializer extends JsonSerializer<BinaryData> {
+
+        @Override
+        public void serialize(BinaryData value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (value.isSpilled()) {
+                generator.writeStartObject();
+                generator.writeStringField("handle", value.handle);
+                generator.writeNumberField("size", value.size);
+                generator.writeEndObject();
+                return;
+            }
+            if (generator instanceof TokenBuffer) {
+                // Converting to a tree or another type, which cannot take a stream
+                generator.writeString(Base64Variants.MIME_NO_LINEFEEDS.encode(value.toByteArray()));
+                return;
+            }
+            // Encoded chunk by chunk into the generator's buffer
+            try (InputStream in = value.asInputStream()) {
+                generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, in, (int) value.size);
+            }
+        }
+    }
+
+    /**
+     * Collects decoded bytes in a pooled buffer, which grows inside Netty's pool rather
+     * than by fresh allocations, then copies them once into direct memory of their exact
+     * size. The pooled buffer goes back to the pool on close, whether decoding succeeded or not.
+     */
+    private static final class PooledBufferOutputStream extends OutputStream {
+        private final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(INITIAL_CAPACITY);
+
+        @Override
+        public void write(int b) {
+            buffer.writeByte(b);
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) {
+            buffer.writeBytes(b, offset, length);
+        }
+
+        ByteBuffer toBuffer() {
+            ByteBuffer copy = ByteBuffer.allocateDirect(buffer.readableBytes());
+            buffer.getBytes(buffer.readerIndex(), copy);
+            return copy.flip();
+        }
+
+        @Override
+        public void close() {
+            buffer.release();
+        }
+    }
+}
@@ -1,14 +1,106 @@
 package com.interview.mcp.schema;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class McpSchema {
 
+    /**
+     * Represents a JSON-RPC request sent to a server. A tools/call request keeps the
+     * tool name and arguments as they are rather than in a params map, so the encoder
+     * can write it from a pre-encoded prefix. The trace context and progress token go
+     * into params._meta.
+     */
+    public record JsonRpcRequest(long id, String method, Map<String, Object> params,
+                                 String toolName, Map<String, Object> arguments, Object progressToken,
+                                 Map<String, String> traceContext) {
+
+        public static JsonRpcRequest of(long id, String method, Map<String, Object> params) {
+            return new JsonRpcRequest(id, method, params, null, null, null, Map.of());
+        }
+
+        public static JsonRpcRequest toolCall(long id, String toolName, Map<String, Object> arguments,
+                                              Object progressToken) {
+            return new JsonRpcRequest(id, "tools/call", null, toolName, arguments, progressToken, Map.of());
+        }
+
+        public boolean isToolCall() {
+            return toolName != null;
+        }
+
+        public JsonRpcRequest withTraceContext(Map<String, String> traceContext) {
+            return new JsonRpcRequest(id, method, params, toolName, arguments, progressToken, traceContext);
+        }
+    }
+
+    /**
+     * Represents a JSON-RPC response whose result is decoded as T
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record JsonRpcResponse<T>(String jsonrpc, Object id, T result, JsonRpcError error) {
+
+        // Response for a request that failed before the server could answer it
+        public static <T> JsonRpcResponse<T> failure(String message) {
+            return new JsonRpcResponse<>("2.0", null, null,
+                new JsonRpcError(-32603, message != null ? message : "Internal error", null));
+        }
+    }
+
+    /**
+     * Represents the error member of a JSON-RPC response
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record JsonRpcError(int code, String message, JsonNode data) {}
+
+    /**
+     * Represents the result of the initialize handshake
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record InitializeResult(String protocolVersion, JsonNode capabilities, JsonNode serverInfo) {}
+
+    /**
+     * Represents the result of tools/list
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ListToolsResult(List<Tool> tools, String nextCursor) {
+
+        public ListToolsResult(List<Tool> tools, String nextCursor) {
+            this.tools = tools != null ? tools : List.of();
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    /**
+     * Represents the result of resources/list
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ListResourcesResult(List<Resource> resources, String nextCursor) {
+
+        public ListResourcesResult(List<Resource> resources, String nextCursor) {
+            this.resources = resources != null ? resources : List.of();
+            this.nextCursor = nextCursor;
+        }
+    }
+
     /**
      * Represents an MCP tool with name, description, and input schema
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public record Tool(String name, String description, JsonNode inputSchema) {
         
         public Tool(String name, String description, JsonNode inputSchema) {
@@ -19,24 +111,170 @@ public class McpSchema {
     }
 
     /**
-     * Represents the result of calling an MCP tool
+     * Represents one tool invocation within a batch
+     */
+    public record ToolCall(String name, Map<String, Object> arguments) {
+
+        public ToolCall(String name, Map<String, Object> arguments) {
+            this.name = name;
+            this.arguments = arguments != null ? arguments : Map.of();
+        }
+    }
+
+    /**
+     * Represents the result of calling an MCP tool. A call that failed before or
+     * instead of running the tool has no content, only an error message.
      */
-    public record CallToolResult(Object content, boolean isError) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CallToolResult(List<Content> content, @JsonProperty("isError") boolean isError, String errorMessage) {
         
-        public CallToolResult(Object content, boolean isError) {
-            this.content = content;
-            this.isError = isError;
+        @JsonCreator
+        public CallToolResult(@JsonProperty("content") List<Content> content, @JsonProperty("isError") boolean isError) {
+            this(content != null ? content : List.of(), isError, null);
         }
         
         // Convenience constructor for error results
         public CallToolResult(String errorMessage) {
-            this(errorMessage, true);
+            this(List.of(), true, errorMessage);
+        }
+    }
+
+    /**
+     * Represents one item of tool result content, told apart by its type. Types this
+     * client does not know are kept as they were sent.
+     */
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type",
+                  visible = true, defaultImpl = UnknownContent.class)
+    @JsonSubTypes({
+        @JsonSubTypes.Type(value = TextContent.class, name = "text"),
+        @JsonSubTypes.Type(value = ImageContent.class, name = "image"),
+        @JsonSubTypes.Type(value = AudioContent.class, name = "audio"),
+        @JsonSubTypes.Type(value = EmbeddedResource.class, name = "resource")
+    })
+    public sealed interface Content
+            permits TextContent, ImageContent, AudioContent, EmbeddedResource, UnknownContent {
+
+        @JsonProperty("type")
+        String type();
+    }
+
+    /**
+     * Represents text content
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record TextContent(String text, JsonNode annotations) implements Content {
+
+        @Override
+        public String type() {
+            return "text";
+        }
+    }
+
+    /**
+     * Represents an image, its data decoded from base64
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ImageContent(BinaryData data, String mimeType, JsonNode annotations) implements Content {
+
+        @Override
+        public String type() {
+            return "image";
+        }
+
+        public ImageContent withData(BinaryData data) {
+            return new ImageContent(data, mimeType, annotations);
+        }
+    }
+
+    /**
+     * Represents an audio clip, its data decoded from base64
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record AudioContent(BinaryData data, String mimeType, JsonNode annotations) implements Content {
+
+        @Override
+        public String type() {
+            return "audio";
+        }
+
+        public AudioContent withData(BinaryData data) {
+            return new AudioContent(data, mimeType, annotations);
+        }
+    }
+
+    /**
+     * Represents a resource embedded in a tool result
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record EmbeddedResource(ResourceContents resource, JsonNode annotations) implements Content {
+
+        @Override
+        public String type() {
+            return "resource";
+        }
+
+        public EmbeddedResource withResource(ResourceContents resource) {
+            return new EmbeddedResource(resource, annotations);
+        }
+    }
+
+    /**
+     * Represents content of a type this client does not know, with every field as sent
+     */
+    public static final class UnknownContent implements Content {
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+
+        @JsonAnySetter
+        public void set(String name, Object value) {
+            fields.put(name, value);
+        }
+
+        @JsonAnyGetter
+        public Map<String, Object> fields() {
+            return fields;
+        }
+
+        // Written along with the other fields
+        @JsonIgnore
+        @Override
+        public String type() {
+            return String.valueOf(fields.get("type"));
+        }
+    }
+
+    /**
+     * Represents the contents of a resource: text, or a blob decoded from base64
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ResourceContents(String uri, String mimeType, String text, BinaryData blob) {
+
+        public ResourceContents withBlob(BinaryData blob) {
+            return new ResourceContents(uri, mimeType, text, blob);
+        }
+    }
+
+    /**
+     * Represents the result of calling an MCP tool, left as the JSON bytes the server
+     * sent. The buffer holds the whole result object, or a JSON string describing the
+     * error when the server answered with a JSON-RPC error. Whoever ends up with the
+     * result must release the buffer.
+     */
+    public record RawCallToolResult(DataBuffer json, boolean isError) {
+
+        public void release() {
+            DataBufferUtils.release(json);
         }
     }
 
     /**
      * Represents an MCP resource with URI, name, description, and metadata
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public record Resource(String uri, String name, String description, String mimeType, Object annotations) {
         
         public Resource(String uri, String name, String description, String mimeType, Object annotations) {
@@ -51,10 +289,17 @@ public class McpSchema {
     /**
      * Represents the result of reading an MCP resource
      */
-    public record ReadResourceResult(List<Object> contents) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ReadResourceResult(List<ResourceContents> contents) {
         
-        public ReadResourceResult(List<Object> contents) {
+        public ReadResourceResult(List<ResourceContents> contents) {
             this.contents = contents != null ? contents : List.of();
         }
     }
+
+    /**
+     * Represents the params of notifications/progress for a request that passed a progress token
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ProgressNotification(Object progressToken, double progress, Double total, String message) {}
 }
@@ -0,0 +1,843 @@
+package com.interview.mcp.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import io.micrometer.common.KeyValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.ContextView;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * MCP protocol handling shared by all transports: the initialize handshake,
+ * tool and resource discovery, notifications pushed by the server, and mapping
+ * of JSON-RPC results. Subclasses move JSON-RPC messages to and from the server
+ * and decode responses straight into the McpSchema records.
+ */
+public abstract class AbstractMcpServerConnection implements McpServerConnection {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractMcpServerConnection.class);
+
+    private static final ParameterizedTypeReference<McpSchema.JsonRpcResponse<McpSchema.InitializeResult>> INITIALIZE_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<McpSchema.JsonRpcResponse<McpSchema.ListToolsResult>> LIST_TOOLS_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<McpSchema.JsonRpcResponse<McpSchema.ListResourcesResult>> LIST_RESOURCES_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<McpSchema.JsonRpcResponse<McpSchema.CallToolResult>> CALL_TOOL_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<McpSchema.JsonRpcResponse<McpSchema.ReadResourceResult>> READ_RESOURCE_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<McpSchema.JsonRpcResponse<JsonNode>> PING_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+
+    protected final String serverName;
+    protected final ObjectMapper objectMapper;
+    protected final Scheduler scheduler;
+
+    /**
+     * Connection flag and catalogs as one immutable version. Every change swaps in a new
+     * State, so readers never lock or copy, and never see a catalog that outlived close().
+     */
+    private record State(boolean connected, Catalog<McpSchema.Tool> tools, Catalog<McpSchema.Resource> resources) {
+        static final State DISCONNECTED = new State(false, Catalog.empty(), Catalog.empty());
+
+        State withConnected(boolean connected) {
+            return new State(connected, tools, resources);
+        }
+
+        State withTools(Catalog<McpSchema.Tool> tools) {
+            return new State(connected, tools, resources);
+        }
+
+        State withResources(Catalog<McpSchema.Resource> resources) {
+            return new State(connected, tools, resources);
+        }
+    }
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.DISCONNECTED);
+    private final CatalogList<McpSchema.ListToolsResult, McpSchema.Tool> tools = new CatalogList<>(
+        "tools", "tools/list", LIST_TOOLS_RESPONSE, McpSchema.ListToolsResult::tools,
+        McpSchema.ListToolsResult::nextCursor, McpSchema.Tool::name,
+        State::tools, State::withTools, this::onToolsChanged);
+    private final CatalogList<McpSchema.ListResourcesResult, McpSchema.Resource> resources = new CatalogList<>(
+        "resources", "resources/list", LIST_RESOURCES_RESPONSE, McpSchema.ListResourcesResult::resources,
+        McpSchema.ListResourcesResult::nextCursor, McpSchema.Resource::uri,
+        State::resources, State::withResources, () -> {});
+    private volatile Runnable toolsChangedListener;
+    private volatile McpMetrics metrics = McpMetrics.NOOP;
+    private volatile McpTracing tracing = McpTracing.NOOP;
+    private final JsonRpcEncoder encoder;
+    private final RawToolResultReader rawToolResults;
+    private final AtomicLong requestIds = new AtomicLong();
+    private final Sinks.Many<McpSchema.ProgressNotification> progress = Sinks.many().multicast().directBestEffort();
+
+    protected AbstractMcpServerConnection(String serverName, ObjectMapper objectMapper, Scheduler scheduler) {
+        this.serverName = serverName;
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.encoder = new JsonRpcEncoder(objectMapper);
+        this.rawToolResults = new RawToolResultReader(objectMapper);
+    }
+
+    /**
+     * Send a JSON-RPC request to the server and emit its response decoded as the given type
+     */
+    protected abstract <T> Mono<McpSchema.JsonRpcResponse<T>> exchange(
+            McpSchema.JsonRpcRequest request, ParameterizedTypeReference<McpSchema.JsonRpcResponse<T>> responseType);
+
+    /**
+     * Send a JSON-RPC request to the server and emit its whole response message as
+     * the bytes that arrived, in one buffer the caller must release
+     */
+    protected abstract Mono<DataBuffer> exchangeRaw(McpSchema.JsonRpcRequest request);
+
+    /**
+     * Send a JSON-RPC notification, which the server does not answer
+     */
+    protected abstract Mono<Void> sendNotification(Map<String, Object> notification);
+
+    /**
+     * Send several JSON-RPC requests and emit their responses in request order, with
+     * null for any request the server did not answer. Transports without native
+     * batching pipeline the requests individually.
+     */
+    protected <T> Mono<List<McpSchema.JsonRpcResponse<T>>> exchangeBatch(
+            List<McpSchema.JsonRpcRequest> requests, ParameterizedTypeReference<McpSchema.JsonRpcResponse<T>> responseType) {
+        return Flux.fromIterable(requests)
+            .flatMapSequential(request -> exchange(request, responseType)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> Mono.just(Optional.of(McpSchema.JsonRpcResponse.<T>failure(e.getMessage())))))
+            .collectList()
+            .map(responses -> responses.stream()
+                .map(response -> response.orElse(null))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Match a JSON-RPC batch response back to its requests by id. A server that
+     * rejects the batch as a whole answers with a single error object, which is
+     * then reported for every request.
+     */
+    protected <T> List<McpSchema.JsonRpcResponse<T>> matchBatchResponses(
+            List<McpSchema.JsonRpcRequest> requests, List<McpSchema.JsonRpcResponse<T>> responses) {
+        Map<String, McpSchema.JsonRpcResponse<T>> responsesById = new HashMap<>();
+        McpSchema.JsonRpcResponse<T> sharedResponse = null;
+
+        for (McpSchema.JsonRpcResponse<T> response : responses) {
+            if (response.id() != null) {
+                responsesById.put(String.valueOf(response.id()), response);
+            } else if (response.error() != null) {
+                sharedResponse = response;
+            }
+        }
+
+        List<McpSchema.JsonRpcResponse<T>> matched = new ArrayList<>(requests.size());
+        for (McpSchema.JsonRpcRequest request : requests) {
+            McpSchema.JsonRpcResponse<T> response = responsesById.get(String.valueOf(request.id()));
+            matched.add(response != null ? response : sharedResponse);
+        }
+        return matched;
+    }
+
+    /**
+     * Serialize a message into a pooled buffer for the wire, recording its size
+     */
+    protected DataBuffer encodeMessage(Object message) {
+        DataBuffer buffer = encoder.encode(message);
+        metrics.recordRequestSize(methodOf(message), buffer.readableByteCount());
+        return buffer;
+    }
+
+    /**
+     * JSON-RPC method of a request or notification, "batch" for a batch and "response"
+     * for an answer to a server request
+     */
+    protected static String methodOf(Object message) {
+        if (message instanceof McpSchema.JsonRpcRequest request) {
+            return request.method();
+        }
+        if (message instanceof List<?>) {
+            return "batch";
+        }
+        if (message instanceof Map<?, ?> map && map.get("method") instanceof String method) {
+            return method;
+        }
+        return "response";
+    }
+
+    protected McpMetrics metrics() {
+        return metrics;
+    }
+
+    protected JsonRpcEncoder encoder() {
+        return encoder;
+    }
+
+    /**
+     * Called once the server has accepted the initialize request, before discovery starts
+     */
+    protected Mono<Void> onInitialized() {
+        return Mono.empty();
+    }
+
+    /**
+     * Protocol revision requested in the initialize handshake
+     */
+    protected String protocolVersion() {
+        return "2024-11-05";
+    }
+
+    /**
+     * Parse a response gathered into one buffer on the calling thread, releasing the buffer
+     */
+    protected <T> T readResponse(DataBuffer message, JavaType type) {
+        try (InputStream in = message.asInputStream(true)) {
+            return objectMapper.readValue(in, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed response from MCP server " + serverName, e);
+        }
+    }
+
+    /**
+     * Id for the next JSON-RPC request, unique within this connection
+     */
+    protected long nextRequestId() {
+        return requestIds.incrementAndGet();
+    }
+
+    /**
+     * Send a request through the transport, timed and counted per method and tool, in a
+     * span whose trace context goes along in the request's _meta
+     */
+    private <T> Mono<McpSchema.JsonRpcResponse<T>> call(
+            McpSchema.JsonRpcRequest request, ParameterizedTypeReference<McpSchema.JsonRpcResponse<T>> responseType) {
+        return call(request, traced -> exchange(traced, responseType));
+    }
+
+    private <T> Mono<McpSchema.JsonRpcResponse<T>> call(
+            McpSchema.JsonRpcRequest request,
+            Function<McpSchema.JsonRpcRequest, Mono<McpSchema.JsonRpcResponse<T>>> exchange) {
+        String method = request.method();
+        String tool = toolTag(request);
+        return tracing.observe("mcp.client.request", spanName(method, tool),
+            KeyValues.of("mcp.server", serverName, "mcp.method.name", method, "mcp.tool.name", tool),
+            KeyValues.of("jsonrpc.request.id", String.valueOf(request.id())),
+            observation -> metrics.timed(method, tool,
+                exchange.apply(withTraceContext(request, tracing.propagationFields(observation))),
+                response -> outcomeOf(method, response)));
+    }
+
+    /**
+     * Like call, for a response the transport streams as it arrives
+     */
+    protected <T> Flux<T> callStreaming(McpSchema.JsonRpcRequest request,
+                                        Function<McpSchema.JsonRpcRequest, Flux<T>> exchange) {
+        String method = request.method();
+        return tracing.observeMany("mcp.client.request", method,
+            KeyValues.of("mcp.server", serverName, "mcp.method.name", method, "mcp.tool.name", "none"),
+            KeyValues.of("jsonrpc.request.id", String.valueOf(request.id())),
+            observation -> metrics.timed(method, "none",
+                exchange.apply(withTraceContext(request, tracing.propagationFields(observation)))));
+    }
+
+    /**
+     * Send a notification in its own span, with the trace context in its params._meta
+     */
+    protected Mono<Void> notifyServer(String method, Map<String, Object> params) {
+        return tracing.observe("mcp.client.request", method,
+            KeyValues.of("mcp.server", serverName, "mcp.method.name", method, "mcp.tool.name", "none"),
+            KeyValues.empty(),
+            observation -> {
+                Map<String, String> traceContext = tracing.propagationFields(observation);
+                if (traceContext.isEmpty()) {
+                    return sendNotification(createJsonRpcNotification(method, params));
+                }
+                Map<String, Object> traced = params != null ? new HashMap<>(params) : new HashMap<>();
+                traced.put("_meta", traceContext);
+                return sendNotification(createJsonRpcNotification(method, traced));
+            });
+    }
+
+    private static String spanName(String method, String tool) {
+        return "none".equals(tool) ? method : method + " " + tool;
+    }
+
+    /**
+     * The request with the trace context to send in its params._meta, next to any progress token
+     */
+    private static McpSchema.JsonRpcRequest withTraceContext(McpSchema.JsonRpcRequest request,
+                                                             Map<String, String> fields) {
+        return fields.isEmpty() ? request : request.withTraceContext(fields);
+    }
+
+    private McpMetrics.Outcome outcomeOf(String method, McpSchema.JsonRpcResponse<?> response) {
+        if (response.error() != null) {
+            metrics.recordError(method, String.valueOf(response.error().code()));
+            return McpMetrics.Outcome.RPC_ERROR;
+        }
+        if (response.result() instanceof McpSchema.CallToolResult result && result.isError()
+                || response.result() instanceof McpSchema.RawCallToolResult raw && raw.isError()) {
+            return McpMetrics.Outcome.TOOL_ERROR;
+        }
+        return McpMetrics.Outcome.SUCCESS;
+    }
+
+    /**
+     * A batch takes the worst outcome of its requests; each error response is counted
+     */
+    private McpMetrics.Outcome outcomeOf(List<McpSchema.JsonRpcResponse<McpSchema.CallToolResult>> responses) {
+        McpMetrics.Outcome outcome = McpMetrics.Outcome.SUCCESS;
+        for (McpSchema.JsonRpcResponse<McpSchema.CallToolResult> response : responses) {
+            McpMetrics.Outcome single = response != null
+                ? outcomeOf("tools/call", response) : McpMetrics.Outcome.RPC_ERROR;
+            if (single.compareTo(outcome) > 0) {
+                outcome = single;
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Tool of a tools/call request; tools the server does not offer share one tag so
+     * arbitrary names cannot multiply the meters
+     */
+    private String toolTag(McpSchema.JsonRpcRequest request) {
+        if (request.isToolCall()) {
+            return state.get().tools().find(request.toolName()).isPresent() ? request.toolName() : "other";
+        }
+        return "none";
+    }
+
+    @Override
+    public Mono<Void> initializeAsync() {
+        logger.info("Initializing connection to MCP server: {}", getServerUrl());
+
+        // Send initialization request according to MCP specification
+        McpSchema.JsonRpcRequest initRequest = createJsonRpcRequest("initialize", Map.of(
+            "protocolVersion", protocolVersion(),
+            "capabilities", Map.of(
+                "tools", Map.of("listChanged", true),
+                "resources", Map.of("listChanged", true, "subscribe", true)
+            ),
+            "clientInfo", Map.of(
+                "name", "MCP Spring Boot Client",
+                "version", "1.0.0"
+            )
+        ));
+
+        return call(initRequest, INITIALIZE_RESPONSE)
+            .flatMap(response -> {
+                if (response.result() != null) {
+                    state.updateAndGet(current -> current.withConnected(true));
+                    logger.info("Successfully initialized connection to MCP server: {}", serverName);
+
+                    // Load available tools and resources, both requests in flight at once
+                    return onInitialized()
+                        .then(Mono.when(tools.load(), resources.load()));
+                } else if (response.error() != null) {
+                    return Mono.error(new Exception("MCP server returned error: " + response.error()));
+                }
+                return Mono.empty();
+            })
+            .doOnError(e -> logger.error("Failed to initialize connection to MCP server: {}", getServerUrl(), e))
+            .then();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return state.get().connected();
+    }
+
+    /**
+     * Mark the connection as down while keeping its catalogs, e.g. when the process or server went away
+     */
+    protected void markDisconnected() {
+        state.updateAndGet(current -> current.withConnected(false));
+    }
+
+    /**
+     * Any JSON-RPC answer proves the server is alive, even an error from one that does not implement ping
+     */
+    @Override
+    public Mono<Duration> pingAsync(Duration timeout) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call(createJsonRpcRequest("ping", null), PING_RESPONSE)
+                .switchIfEmpty(Mono.error(() -> new Exception("No response from server")))
+                .timeout(timeout)
+                .map(response -> Duration.ofNanos(System.nanoTime() - start));
+        })
+        .doOnError(e -> markDisconnected());
+    }
+
+    @Override
+    public List<McpSchema.Tool> listTools() throws Exception {
+        State current = state.get();
+        if (!current.connected()) {
+            throw new IllegalStateException("Not connected to MCP server");
+        }
+        return current.tools().items();
+    }
+
+    @Override
+    public List<String> getAvailableTools() {
+        return state.get().tools().keys();
+    }
+
+    @Override
+    public void setToolsChangedListener(Runnable listener) {
+        this.toolsChangedListener = listener;
+    }
+
+    @Override
+    public void setMetrics(McpMetrics metrics) {
+        // Removed before the new meters register, as the registry removes meters by id
+        McpMetrics previous = this.metrics;
+        if (previous != metrics && previous != McpMetrics.NOOP) {
+            previous.close();
+        }
+        this.metrics = metrics;
+        metrics.catalogSize("tools", state, current -> current.get().tools().size());
+        metrics.catalogSize("resources", state, current -> current.get().resources().size());
+    }
+
+    @Override
+    public void setTracing(McpTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public Mono<Void> refreshCatalogAsync(boolean force) {
+        return Mono.defer(() -> {
+            if (!isConnected()) {
+                return Mono.error(new IllegalStateException("Not connected to MCP server"));
+            }
+            return Mono.when(tools.refresh(force), resources.refresh(force));
+        });
+    }
+
+    @Override
+    public Flux<McpSchema.ProgressNotification> progressNotifications() {
+        return progress.asFlux();
+    }
+
+    /**
+     * Act on a notification pushed by the server. List changes reload only the list
+     * that changed; the server does not say what changed within it.
+     */
+    protected void handleNotification(String method, JsonNode params) {
+        switch (method) {
+            case "notifications/tools/list_changed" -> {
+                logger.info("Tool list of MCP server {} changed, reloading", serverName);
+                tools.markStale();
+                tools.refresh(false).subscribe();
+            }
+            case "notifications/resources/list_changed" -> {
+                logger.info("Resource list of MCP server {} changed, reloading", serverName);
+                resources.markStale();
+                resources.refresh(false).subscribe();
+            }
+            case "notifications/progress" -> {
+                try {
+                    McpSchema.ProgressNotification notification =
+                        objectMapper.treeToValue(params, McpSchema.ProgressNotification.class);
+                    logger.debug("Progress from MCP server {}: {}", serverName, notification);
+                    synchronized (progress) {
+                        progress.tryEmitNext(notification);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Ignoring malformed progress notification from MCP server {}: {}", serverName, e.getMessage());
+                }
+            }
+            case "notifications/message" -> logger.info("Log message from MCP server {}: {}", serverName, params);
+            default -> logger.debug("Received notification {} from MCP server {}", method, serverName);
+        }
+    }
+
+    /**
+     * Answer a request the server sends to the client
+     */
+    protected Map<String, Object> handleServerRequest(String method, Object id) {
+        if ("ping".equals(method)) {
+            return Map.of("jsonrpc", "2.0", "id", id, "result", Map.of());
+        }
+        return Map.of("jsonrpc", "2.0", "id", id, "error", Map.of(
+            "code", -32601,
+            "message", "Method not found: " + method));
+    }
+
+    @Override
+    public Mono<McpSchema.CallToolResult> callToolAsync(String toolName, Map<String, Object> parameters) {
+        return callToolAsync(toolName, parameters, null);
+    }
+
+    @Override
+    public Mono<McpSchema.CallToolResult> callToolAsync(String toolName, Map<String, Object> parameters,
+                                                        Object progressToken) {
+        return Mono.deferContextual(context -> {
+            if (!isConnected()) {
+                return Mono.error(new IllegalStateException("Not connected to MCP server"));
+            }
+
+            logger.info("Calling tool {} on server {} with parameters: {}", toolName, serverName, parameters);
+
+            McpSchema.JsonRpcRequest toolRequest =
+                McpSchema.JsonRpcRequest.toolCall(nextRequestId(), toolName, parameters, progressToken);
+
+            return call(toolRequest, CALL_TOOL_RESPONSE)
+                .doOnCancel(() -> cancelRequest(toolRequest.id(), context))
+                .map(this::toCallToolResult)
+                .defaultIfEmpty(new McpSchema.CallToolResult("No response from server"));
+        });
+    }
+
+    /**
+     * The result is located in the response but not decoded, and a buffer that is no
+     * longer wanted once it arrives is released
+     */
+    @Override
+    public Mono<McpSchema.RawCallToolResult> callToolRawAsync(String toolName, Map<String, Object> parameters) {
+        return Mono.deferContextual(context -> {
+            if (!isConnected()) {
+                return Mono.error(new IllegalStateException("Not connected to MCP server"));
+            }
+
+            logger.info("Calling tool {} on server {} with parameters: {}", toolName, serverName, parameters);
+
+            McpSchema.JsonRpcRequest toolRequest =
+                McpSchema.JsonRpcRequest.toolCall(nextRequestId(), toolName, parameters, null);
+
+            return call(toolRequest, request -> exchangeRaw(request).map(rawToolResults::read))
+                .doOnCancel(() -> cancelRequest(toolRequest.id(), context))
+                .map(this::toRawCallToolResult)
+                .switchIfEmpty(Mono.fromSupplier(() -> rawErrorResult("No response from server")))
+                .doOnDiscard(McpSchema.RawCallToolResult.class, McpSchema.RawCallToolResult::release);
+        });
+    }
+
+    @Override
+    public Mono<List<McpSchema.CallToolResult>> callToolsAsync(List<McpSchema.ToolCall> calls) {
+        return Mono.deferContextual(context -> {
+            if (!isConnected()) {
+                return Mono.error(new IllegalStateException("Not connected to MCP server"));
+            }
+            if (calls.isEmpty()) {
+                return Mono.just(List.<McpSchema.CallToolResult>of());
+            }
+
+            logger.info("Calling {} tools in one batch on server {}", calls.size(), serverName);
+
+            List<McpSchema.JsonRpcRequest> requests = new ArrayList<>(calls.size());
+            for (McpSchema.ToolCall call : calls) {
+                requests.add(McpSchema.JsonRpcRequest.toolCall(nextRequestId(), call.name(), call.arguments(), null));
+            }
+
+            return tracing.observe("mcp.client.request", "batch",
+                    KeyValues.of("mcp.server", serverName, "mcp.method.name", "batch", "mcp.tool.name", "none"),
+                    KeyValues.of("mcp.batch.size", String.valueOf(requests.size())),
+                    observation -> {
+                        Map<String, String> traceContext = tracing.propagationFields(observation);
+                        List<McpSchema.JsonRpcRequest> traced = traceContext.isEmpty() ? requests
+                            : requests.stream().map(request -> request.withTraceContext(traceContext)).toList();
+                        return metrics.timed("batch", "none", exchangeBatch(traced, CALL_TOOL_RESPONSE), this::outcomeOf);
+                    })
+                .doOnCancel(() -> requests.forEach(request -> cancelRequest(request.id(), context)))
+                .map(responses -> {
+                    List<McpSchema.CallToolResult> results = new ArrayList<>(responses.size());
+                    for (McpSchema.JsonRpcResponse<McpSchema.CallToolResult> response : responses) {
+                        results.add(response != null
+                            ? toCallToolResult(response)
+                            : new McpSchema.CallToolResult("No response from server"));
+                    }
+                    return results;
+                });
+        });
+    }
+
+    @Override
+    public List<McpSchema.Resource> listResources() throws Exception {
+        State current = state.get();
+        if (!current.connected()) {
+            throw new IllegalStateException("Not connected to MCP server");
+        }
+        return current.resources().items();
+    }
+
+    @Override
+    public Optional<McpSchema.Resource> findResource(String uri) {
+        return state.get().resources().find(uri);
+    }
+
+    @Override
+    public Mono<McpSchema.ReadResourceResult> readResourceAsync(String uri) {
+        return Mono.defer(() -> {
+            if (!isConnected()) {
+                return Mono.error(new IllegalStateException("Not connected to MCP server"));
+            }
+
+            logger.info("Reading resource {} from server {}", uri, serverName);
+
+            McpSchema.JsonRpcRequest resourceRequest = createJsonRpcRequest("resources/read", Map.of(
+                "uri", uri
+            ));
+
+            return call(resourceRequest, READ_RESOURCE_RESPONSE)
+                .<McpSchema.ReadResourceResult>handle((response, sink) -> {
+                    if (response.result() != null) {
+                        sink.next(response.result());
+                    } else if (response.error() != null) {
+                        sink.error(new Exception("Error reading resource: " + response.error().message()));
+                    } else {
+                        sink.error(new Exception("No response from server"));
+                    }
+                })
+                .switchIfEmpty(Mono.error(() -> new Exception("No response from server")))
+                .doOnError(e -> logger.error("Failed to read resource {} from server {}", uri, serverName, e));
+        });
+    }
+
+    /**
+     * Transports that cannot stream a response fall back to reading the whole
+     * resource and emitting its payload as a single buffer
+     */
+    @Override
+    public Flux<DataBuffer> readResourceContent(String uri) {
+        return readResourceAsync(uri).flatMapMany(result -> {
+            if (result.contents().isEmpty()) {
+                return Flux.empty();
+            }
+            McpSchema.ResourceContents content = result.contents().get(0);
+            if (content.blob() != null) {
+                return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content.blob().asByteBuffer()));
+            } else if (content.text() != null) {
+                return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content.text().getBytes(StandardCharsets.UTF_8)));
+            }
+            return Flux.empty();
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        // Catalogs go with the connection, so later loads have nothing to publish into
+        metrics.close();
+        if (state.getAndSet(State.DISCONNECTED).connected()) {
+            logger.info("Closing connection to MCP server: {}", serverName);
+            progress.tryEmitComplete();
+        }
+    }
+
+    private void onToolsChanged() {
+        Runnable listener = toolsChangedListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Tell the server that the caller no longer wants the result of a request.
+     * The local exchange has already been aborted by the time this runs; the
+     * notification is traced under the observation the cancelled call ran in.
+     */
+    private void cancelRequest(long requestId, ContextView context) {
+        logger.info("Cancelling request {} on MCP server {}", requestId, serverName);
+        notifyServer("notifications/cancelled", Map.of(
+            "requestId", requestId,
+            "reason", "Request cancelled by client"
+        ))
+        .contextWrite(context)
+        .subscribe(null, e -> logger.warn("Failed to send cancellation of request {} to MCP server {}: {}",
+                                         requestId, serverName, e.getMessage()));
+    }
+
+    /**
+     * Create JSON-RPC notification according to MCP specification
+     */
+    protected Map<String, Object> createJsonRpcNotification(String method, Map<String, Object> params) {
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", method);
+        if (params != null && !params.isEmpty()) {
+            notification.put("params", params);
+        }
+        return notification;
+    }
+
+    /**
+     * Create JSON-RPC request according to MCP specification
+     */
+    protected McpSchema.JsonRpcRequest createJsonRpcRequest(String method, Map<String, Object> params) {
+        return McpSchema.JsonRpcRequest.of(nextRequestId(), method, params);
+    }
+
+    /**
+     * One list the server offers, fetched page by page and published into the
+     * connection state only when it changed. Loads can overlap when change
+     * notifications arrive in quick succession; the catalog version makes sure a load
+     * never replaces the result of one started after it.
+     */
+    private final class CatalogList<R, T> {
+        private final String kind;
+        private final String method;
+        private final ParameterizedTypeReference<McpSchema.JsonRpcResponse<R>> responseType;
+        private final Function<R, List<T>> pageItems;
+        private final Function<R, String> nextCursor;
+        private final Function<T, String> key;
+        private final Function<State, Catalog<T>> catalogOf;
+        private final BiFunction<State, Catalog<T>, State> withCatalog;
+        private final Runnable onChange;
+
+        // Set by list_changed notifications and failed loads, cleared when a load starts
+        private final AtomicBoolean stale = new AtomicBoolean();
+        private final AtomicLong loads = new AtomicLong();
+
+        CatalogList(String kind, String method, ParameterizedTypeReference<McpSchema.JsonRpcResponse<R>> responseType,
+                    Function<R, List<T>> pageItems, Function<R, String> nextCursor, Function<T, String> key,
+                    Function<State, Catalog<T>> catalogOf, BiFunction<State, Catalog<T>, State> withCatalog,
+                    Runnable onChange) {
+            this.kind = kind;
+            this.method = method;
+            this.responseType = responseType;
+            this.pageItems = pageItems;
+            this.nextCursor = nextCursor;
+            this.key = key;
+            this.catalogOf = catalogOf;
+            this.withCatalog = withCatalog;
+            this.onChange = onChange;
+        }
+
+        void markStale() {
+            stale.set(true);
+        }
+
+        Mono<Void> refresh(boolean force) {
+            return force || stale.get() ? load() : Mono.empty();
+        }
+
+        /**
+         * Fetch every page, following nextCursor, and merge the items into the new
+         * catalog as each page arrives
+         */
+        Mono<Void> load() {
+            return Mono.defer(() -> {
+                stale.set(false);
+                long load = loads.incrementAndGet();
+                Set<String> cursors = new HashSet<>();
+
+                return fetchPage(null)
+                    .expand(page -> {
+                        String cursor = nextCursor.apply(page);
+                        if (cursor == null || cursor.isEmpty()) {
+                            return Mono.empty();
+                        }
+                        if (!cursors.add(cursor)) {
+                            logger.warn("MCP server {} returned {} cursor {} twice, stopping", serverName, method, cursor);
+                            return Mono.empty();
+                        }
+                        return fetchPage(cursor);
+                    })
+                    .collect(() -> new LinkedHashMap<String, T>(),
+                             (items, page) -> pageItems.apply(page).forEach(item -> items.put(key.apply(item), item)))
+                    .doOnNext(items -> publish(Catalog.of(items, load)))
+                    .onErrorResume(e -> {
+                        // Keep the previous catalog rather than a truncated one, and fetch again on the next refresh
+                        stale.set(true);
+                        logger.error("Failed to load {} from MCP server: {}", kind, serverName, e);
+                        return Mono.empty();
+                    })
+                    .then();
+            });
+        }
+
+        private Mono<R> fetchPage(String cursor) {
+            McpSchema.JsonRpcRequest request = createJsonRpcRequest(method, cursor != null ? Map.of("cursor", cursor) : null);
+            return call(request, responseType)
+                .handle((response, sink) -> {
+                    if (response.result() != null) {
+                        sink.next(response.result());
+                    } else {
+                        sink.error(new Exception("MCP server returned error: " + response.error()));
+                    }
+                });
+        }
+
+        private void publish(Catalog<T> loaded) {
+            while (true) {
+                State current = state.get();
+                Catalog<T> previous = catalogOf.apply(current);
+                if (!current.connected() || loaded.version() <= previous.version()) {
+                    // Closed meanwhile, or a later load has already been published
+                    return;
+                }
+                Catalog.Diff diff = loaded.diff(previous);
+                // An unchanged list keeps its items, but still records that this load was the latest
+                Catalog<T> next = diff.isEmpty() ? previous.withVersion(loaded.version()) : loaded;
+                if (state.compareAndSet(current, withCatalog.apply(current, next))) {
+                    if (diff.isEmpty()) {
+                        logger.debug("{} of MCP server {} unchanged ({})", kind, serverName, loaded.size());
+                    } else {
+                        logger.info("Loaded {} {} from MCP server: {} ({})", loaded.size(), kind, serverName, diff);
+                        onChange.run();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert an undecoded tools/call response into a tool result; an error response
+     * gets the same message a decoded one would
+     */
+    private McpSchema.RawCallToolResult toRawCallToolResult(
+            McpSchema.JsonRpcResponse<McpSchema.RawCallToolResult> response) {
+        if (response.result() != null) {
+            return response.result();
+        } else if (response.error() != null) {
+            return rawErrorResult("Error: " + response.error().message());
+        }
+        return rawErrorResult("No response from server");
+    }
+
+    private McpSchema.RawCallToolResult rawErrorResult(String message) {
+        try {
+            return new McpSchema.RawCallToolResult(
+                DefaultDataBufferFactory.sharedInstance.wrap(objectMapper.writeValueAsBytes(message)), true);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize tool error", e);
+        }
+    }
+
+    /**
+     * Convert a tools/call response into a tool result
+     */
+    private McpSchema.CallToolResult toCallToolResult(McpSchema.JsonRpcResponse<McpSchema.CallToolResult> response) {
+        if (response.result() != null) {
+            return response.result();
+        } else if (response.error() != null) {
+            return new McpSchema.CallToolResult("Error: " + response.error().message());
+        }
+        return new McpSchema.CallToolResult("No response from server");
+    }
+}
@@ -0,0 +1,94 @@
+package com.interview.mcp.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * AIMD concurrency limit for one MCP server, enforced through its bulkhead.
+ *
+ * Every call that completes quickly while the limit is in use raises the limit by
+ * 1/limit, so roughly one more concurrent call per round of calls. A call that fails
+ * or takes longer than the latency threshold multiplies it by the backoff ratio. The
+ * limit stays between minLimit and the bulkhead's maxConcurrentCalls; calls above it
+ * wait in the bulkhead queue.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final Bulkhead bulkhead;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+
+    public AdaptiveConcurrencyLimit(Bulkhead bulkhead, int initialLimit, int minLimit,
+                                    Duration latencyThreshold, double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1 for concurrency limit " + bulkhead.getName());
+        }
+        this.bulkhead = bulkhead;
+        this.maxLimit = bulkhead.getMaxConcurrentCalls();
+        this.minLimit = Math.max(1, Math.min(minLimit, maxLimit));
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(this.minLimit, Math.min(initialLimit, maxLimit));
+        bulkhead.setLimit((int) limit);
+    }
+
+    /**
+     * Run the call through the bulkhead and adjust the limit from its outcome
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return bulkhead.execute(() -> Mono.defer(() -> {
+            long start = System.nanoTime();
+            int inFlight = bulkhead.getActiveCalls();
+            AtomicBoolean sampled = new AtomicBoolean();
+            return Mono.defer(call)
+                .doOnSuccess(value -> {
+                    if (sampled.compareAndSet(false, true)) {
+                        onSample(System.nanoTime() - start, inFlight, false);
+                    }
+                })
+                .doOnError(e -> {
+                    if (sampled.compareAndSet(false, true)) {
+                        onSample(System.nanoTime() - start, inFlight, true);
+                    }
+                })
+                .doOnCancel(() -> {
+                    // A call given up on only says something about the server once it was already slow
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed > latencyThresholdNanos && sampled.compareAndSet(false, true)) {
+                        onSample(elapsed, inFlight, true);
+                    }
+                });
+        }));
+    }
+
+    private void onSample(long latencyNanos, int inFlight, boolean failed) {
+        int newLimit;
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlight * 2 >= limit) {
+                // Only grow while the limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            } else {
+                return;
+            }
+            newLimit = (int) limit;
+        }
+        if (newLimit != bulkhead.getLimit()) {
+            bulkhead.setLimit(newLimit);
+        }
+    }
+
+    public synchronized int getLimit() { return (int) limit; }
+
+    public int getMinLimit() { return minLimit; }
+
+    public int getMaxLimit() { return maxLimit; }
+}
@@ -0,0 +1,164 @@
+package com.interview.mcp.service;
+
+import com.interview.mcp.config.McpServerProperties;
+import com.interview.mcp.schema.BinaryData;
+import com.interview.mcp.schema.McpSchema;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the binary payloads of tool results to files, for callers that would rather
+ * download an image or audio clip than receive it inline as base64. Each file gets a
+ * random handle and is deleted once it is older than mcp.content.spill-ttl, when the
+ * caller deletes it, or on shutdown. Expired files are removed whenever something is
+ * spilled or looked up.
+ */
+@Component
+public class BinaryContentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryContentStore.class);
+
+    @Autowired
+    private McpServerProperties mcpServerProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * One payload on disk, with the media type to serve it as
+     */
+    public record SpilledFile(Path path, String mimeType, long size, long expiresAtNanos) {}
+
+    private final Map<String, SpilledFile> files = new ConcurrentHashMap<>();
+    private Path directory;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        directory = Files.createDirectories(Paths.get(mcpServerProperties.getContent().getSpillDirectory()));
+
+        Gauge.builder("mcp.content.spilled.files", files, Map::size)
+            .description("Binary tool payloads currently held on disk")
+            .register(meterRegistry);
+        Gauge.builder("mcp.content.spilled.size", files,
+                current -> current.values().stream().mapToLong(SpilledFile::size).sum())
+            .baseUnit("bytes")
+            .description("Size of the binary tool payloads currently held on disk")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Tool result data with every image, audio clip and resource blob written to disk
+     * and replaced by its handle. Anything else is returned as it is.
+     */
+    public Object spill(Object data) {
+        if (!(data instanceof List<?> items)) {
+            return data;
+        }
+        evictExpired();
+        List<Object> spilled = new ArrayList<>(items.size());
+        for (Object item : items) {
+            spilled.add(item instanceof McpSchema.Content content ? spill(content) : item);
+        }
+        return spilled;
+    }
+
+    /**
+     * Look up a payload that has not expired yet
+     */
+    public Optional<SpilledFile> find(String handle) {
+        evictExpired();
+        return Optional.ofNullable(files.get(handle));
+    }
+
+    /**
+     * Delete a payload before it expires
+     *
+     * @return false if there was no such payload
+     */
+    public boolean delete(String handle) {
+        SpilledFile file = files.remove(handle);
+        if (file == null) {
+            return false;
+        }
+        deleteFile(file);
+        return true;
+    }
+
+    @PreDestroy
+    public void close() {
+        files.keySet().forEach(this::delete);
+    }
+
+    private McpSchema.Content spill(McpSchema.Content content) {
+        if (content instanceof McpSchema.ImageContent image && image.data() != null) {
+            return image.withData(write(image.data(), image.mimeType()));
+        }
+        if (content instanceof McpSchema.AudioContent audio && audio.data() != null) {
+            return audio.withData(write(audio.data(), audio.mimeType()));
+        }
+        if (content instanceof McpSchema.EmbeddedResource embedded
+                && embedded.resource() != null && embedded.resource().blob() != null) {
+            McpSchema.ResourceContents resource = embedded.resource();
+            return embedded.withResource(resource.withBlob(write(resource.blob(), resource.mimeType())));
+        }
+        return content;
+    }
+
+    private BinaryData write(BinaryData data, String mimeType) {
+        if (data.isSpilled()) {
+            return data;
+        }
+        String handle = UUID.randomUUID().toString();
+        Path path = directory.resolve(handle);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // Straight from direct memory to the file
+            ByteBuffer bytes = data.asByteBuffer();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill tool content to " + path, e);
+        }
+        long expiresAt = System.nanoTime() + mcpServerProperties.getContent().getSpillTtl().toNanos();
+        files.put(handle, new SpilledFile(path, mimeType, data.size(), expiresAt));
+        return BinaryData.spilled(handle, data.size());
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        files.forEach((handle, file) -> {
+            if (now - file.expiresAtNanos() >= 0 && files.remove(handle, file)) {
+                deleteFile(file);
+            }
+        });
+    }
+
+    private static void deleteFile(SpilledFile file) {
+        try {
+            Files.deleteIfExists(file.path());
+        } catch (IOException e) {
+            logger.warn("Failed to delete spilled tool content {}: {}", file.path(), e.getMessage());
+        }
+    }
+}
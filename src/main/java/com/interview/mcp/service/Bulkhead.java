@@ -0,0 +1,167 @@
+package com.interview.mcp.service;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking bulkhead limiting the number of in-flight calls to one MCP server.
+ * Calls beyond the limit wait in a bounded queue; once that is full they are rejected.
+ * The limit can be lowered below maxConcurrentCalls at runtime, see {@link #setLimit}.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final int maxQueuedCalls;
+
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    private int activeCalls = 0;
+    private int limit;
+
+    public Bulkhead(String name, int maxConcurrentCalls, int maxQueuedCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be at least 1 for bulkhead " + name);
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxQueuedCalls = Math.max(0, maxQueuedCalls);
+        this.limit = maxConcurrentCalls;
+    }
+
+    /**
+     * Run the call once a permit is available
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.create(sink -> {
+            PendingCall<T> pending = new PendingCall<>(sink, call);
+            sink.onCancel(pending);
+
+            synchronized (this) {
+                if (activeCalls < limit) {
+                    activeCalls++;
+                } else if (waiting.size() < maxQueuedCalls) {
+                    waiting.addLast(pending);
+                    return;
+                } else {
+                    rejectedCalls.incrementAndGet();
+                    sink.error(new BulkheadFullException(name));
+                    return;
+                }
+            }
+
+            pending.run();
+        });
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            // After the limit was lowered, permits are retired until the calls fit under it
+            next = activeCalls <= limit ? waiting.pollFirst() : null;
+            if (next == null) {
+                activeCalls--;
+            }
+        }
+        // The permit is handed over to the next waiting call
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    /**
+     * Change how many calls may run at once, between 1 and maxConcurrentCalls.
+     * Raising the limit starts waiting calls right away; lowering it lets calls
+     * in flight finish.
+     */
+    public void setLimit(int newLimit) {
+        List<Runnable> admitted = new ArrayList<>();
+        synchronized (this) {
+            limit = Math.max(1, Math.min(newLimit, maxConcurrentCalls));
+            while (activeCalls < limit && !waiting.isEmpty()) {
+                activeCalls++;
+                admitted.add(waiting.pollFirst());
+            }
+        }
+        admitted.forEach(Runnable::run);
+    }
+
+    /**
+     * A call holding, or waiting for, one permit of this bulkhead
+     */
+    private final class PendingCall<T> implements Runnable, Disposable {
+        private final MonoSink<T> sink;
+        private final Supplier<Mono<T>> call;
+        private volatile Disposable running;
+        private volatile boolean cancelled;
+
+        PendingCall(MonoSink<T> sink, Supplier<Mono<T>> call) {
+            this.sink = sink;
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                release();
+                return;
+            }
+            running = Mono.defer(call)
+                .doFinally(signal -> release())
+                .subscribe(sink::success, sink::error, sink::success);
+            if (cancelled) {
+                running.dispose();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            cancelled = true;
+            synchronized (Bulkhead.this) {
+                waiting.remove(this);
+            }
+            Disposable current = running;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return cancelled;
+        }
+    }
+
+    public String getName() { return name; }
+
+    public int getMaxConcurrentCalls() { return maxConcurrentCalls; }
+
+    public int getMaxQueuedCalls() { return maxQueuedCalls; }
+
+    public synchronized int getLimit() { return limit; }
+
+    public synchronized int getActiveCalls() { return activeCalls; }
+
+    public synchronized int getQueuedCalls() { return waiting.size(); }
+
+    public long getRejectedCalls() { return rejectedCalls.get(); }
+
+    /**
+     * Raised when both the concurrency limit and the waiting queue are exhausted
+     */
+    public static class BulkheadFullException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public BulkheadFullException(String name) {
+            super("Too many concurrent calls to MCP server: " + name);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.interview.mcp.service;
+
+import java.util.*;
+
+/**
+ * Immutable list of a server's tools or resources, indexed by tool name or resource
+ * URI. A reloaded catalog is diffed against the one it would replace, so reloads
+ * that change nothing publish nothing. The version orders catalogs of the same list
+ * by when their load started.
+ */
+public final class Catalog<T> {
+
+    private static final Catalog<?> EMPTY = new Catalog<>(Map.of(), List.of(), List.of(), 0);
+
+    private final Map<String, T> itemsByKey;
+    private final List<T> items;
+    private final List<String> keys;
+    private final long version;
+
+    private Catalog(Map<String, T> itemsByKey, List<T> items, List<String> keys, long version) {
+        this.itemsByKey = itemsByKey;
+        this.items = items;
+        this.keys = keys;
+        this.version = version;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Catalog<T> empty() {
+        return (Catalog<T>) EMPTY;
+    }
+
+    /**
+     * Catalog of the given items in key order; the caller must not modify the map afterwards
+     */
+    public static <T> Catalog<T> of(LinkedHashMap<String, T> itemsByKey, long version) {
+        return new Catalog<>(Collections.unmodifiableMap(itemsByKey), List.copyOf(itemsByKey.values()),
+                             List.copyOf(itemsByKey.keySet()), version);
+    }
+
+    /**
+     * The same items under a newer version
+     */
+    public Catalog<T> withVersion(long version) {
+        return new Catalog<>(itemsByKey, items, keys, version);
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    /**
+     * Tool names or resource URIs, in item order
+     */
+    public List<String> keys() {
+        return keys;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Optional<T> find(String key) {
+        return Optional.ofNullable(itemsByKey.get(key));
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * What changed from the previous catalog to this one
+     */
+    public Diff diff(Catalog<T> previous) {
+        int added = 0;
+        int changed = 0;
+        for (Map.Entry<String, T> entry : itemsByKey.entrySet()) {
+            T old = previous.itemsByKey.get(entry.getKey());
+            if (old == null) {
+                added++;
+            } else if (!old.equals(entry.getValue())) {
+                changed++;
+            }
+        }
+        // Every key of this catalog not added was already there; the rest of the old ones are gone
+        int removed = previous.itemsByKey.size() - (itemsByKey.size() - added);
+        return new Diff(added, removed, changed);
+    }
+
+    public record Diff(int added, int removed, int changed) {
+
+        public boolean isEmpty() {
+            return added == 0 && removed == 0 && changed == 0;
+        }
+
+        @Override
+        public String toString() {
+            return added + " added, " + removed + " removed, " + changed + " changed";
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.interview.mcp.service;
+
+import com.interview.mcp.config.McpServerProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for the calls to one MCP server.
+ *
+ * While CLOSED, the outcome of the most recent calls is kept in a count-based window.
+ * Once enough calls were seen and the share of failed or slow calls reaches its
+ * threshold, the circuit OPENs and calls fail immediately. After the open duration it
+ * turns HALF_OPEN and lets a few trial calls through: if all of them succeed in time
+ * the circuit closes again, the first failure opens it again.
+ *
+ * Calls the bulkhead rejected were never sent and are not counted. A call cancelled by
+ * its caller counts as slow once it has run for the slow-call duration, and is ignored
+ * before that.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    // Ordered by severity, the ordinal is exported as mcp.circuit.state
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final boolean enabled;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    // Outcomes of the most recent calls while CLOSED
+    private final byte[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int failedCalls;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    // Bumped on every transition so results of calls started in an earlier state are dropped
+    private long generation;
+    private long openedAt;
+    private int trialCalls;
+    private int trialSuccesses;
+
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public CircuitBreaker(String name, McpServerProperties.CircuitBreakerSettings settings) {
+        this.name = name;
+        this.enabled = settings.getEnabled();
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.slowCallRateThreshold = settings.getSlowCallRateThreshold();
+        this.slowCallNanos = settings.getSlowCallDuration().toNanos();
+        this.minimumCalls = Math.max(1, settings.getMinimumCalls());
+        this.openNanos = settings.getOpenDuration().toNanos();
+        this.halfOpenCalls = Math.max(1, settings.getHalfOpenCalls());
+        this.window = new byte[Math.max(this.minimumCalls, settings.getSlidingWindowSize())];
+    }
+
+    /**
+     * Run the call unless the circuit is open, and record its outcome
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            long permit = tryAcquirePermission();
+            if (permit < 0) {
+                rejectedCalls.incrementAndGet();
+                return Mono.error(new CircuitBreakerOpenException(name));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return Mono.defer(call)
+                .doOnSuccess(value -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        onResult(permit, System.nanoTime() - start, false);
+                    }
+                })
+                .doOnError(e -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        if (e instanceof Bulkhead.BulkheadFullException) {
+                            onIgnored(permit);
+                        } else {
+                            onResult(permit, System.nanoTime() - start, true);
+                        }
+                    }
+                })
+                .doOnCancel(() -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        long elapsed = System.nanoTime() - start;
+                        if (elapsed >= slowCallNanos) {
+                            onResult(permit, elapsed, false);
+                        } else {
+                            onIgnored(permit);
+                        }
+                    }
+                });
+        });
+    }
+
+    /**
+     * The generation the call runs in, or -1 when it is not permitted
+     */
+    private synchronized long tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return -1;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialCalls >= halfOpenCalls) {
+                return -1;
+            }
+            trialCalls++;
+        }
+        return generation;
+    }
+
+    private synchronized void onResult(long permit, long elapsedNanos, boolean failed) {
+        if (permit != generation) {
+            return;
+        }
+        boolean slow = elapsedNanos >= slowCallNanos;
+
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                transitionTo(State.OPEN);
+            } else if (++trialSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        byte outcome = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        if (windowCount == window.length) {
+            byte oldest = window[windowIndex];
+            failedCalls -= oldest & FAILED;
+            slowCalls -= (oldest & SLOW) >> 1;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % window.length;
+        failedCalls += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (windowCount >= minimumCalls
+                && (failedCalls * 100 >= failureRateThreshold * windowCount
+                    || slowCalls * 100 >= slowCallRateThreshold * windowCount)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            trialCalls--;
+        }
+    }
+
+    private void transitionTo(State newState) {
+        if (newState == State.OPEN && state == State.HALF_OPEN) {
+            logger.warn("Circuit breaker for MCP server {} opened again after a failed trial call", name);
+            openedAt = System.nanoTime();
+        } else if (newState == State.OPEN) {
+            logger.warn("Circuit breaker for MCP server {} opened ({}% failed, {}% slow of the last {} calls)",
+                       name, percent(failedCalls), percent(slowCalls), windowCount);
+            openedAt = System.nanoTime();
+        } else {
+            logger.info("Circuit breaker for MCP server {} is now {}", name, newState);
+        }
+        state = newState;
+        generation++;
+        trialCalls = 0;
+        trialSuccesses = 0;
+        windowIndex = 0;
+        windowCount = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+    }
+
+    private int percent(int calls) {
+        return windowCount > 0 ? calls * 100 / windowCount : 0;
+    }
+
+    public String getName() { return name; }
+
+    public synchronized State getState() {
+        // An open circuit whose wait is over lets the next call through as a trial
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Percentage of failed calls in the current window, or -1 before minimumCalls were seen
+     */
+    public synchronized int getFailureRate() {
+        return state == State.CLOSED && windowCount >= minimumCalls ? percent(failedCalls) : -1;
+    }
+
+    /**
+     * Percentage of slow calls in the current window, or -1 before minimumCalls were seen
+     */
+    public synchronized int getSlowCallRate() {
+        return state == State.CLOSED && windowCount >= minimumCalls ? percent(slowCalls) : -1;
+    }
+
+    public long getRejectedCalls() { return rejectedCalls.get(); }
+
+    /**
+     * Raised instead of calling a server whose circuit is open
+     */
+    public static class CircuitBreakerOpenException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitBreakerOpenException(String name) {
+            super("Circuit breaker is open for MCP server: " + name);
+        }
+    }
+}
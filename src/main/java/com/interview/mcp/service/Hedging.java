@@ -0,0 +1,107 @@
+package com.interview.mcp.service;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests: when the first attempt has not answered after a delay, a second
+ * one is started and whichever answers first wins; the other is cancelled.
+ *
+ * An attempt that fails while the other is still running is ignored. When no attempt
+ * is running the failure is reported right away rather than waiting for the hedge,
+ * leaving it to the retry policy.
+ */
+public final class Hedging {
+
+    private Hedging() {}
+
+    /**
+     * Run the attempt, hedging it after the delay if mayHedge allows it at that point
+     */
+    public static <T> Mono<T> execute(Supplier<Mono<T>> attempt, Duration delay, BooleanSupplier mayHedge) {
+        return Mono.create(sink -> {
+            HedgedCall<T> call = new HedgedCall<>(sink, attempt);
+            sink.onCancel(call);
+            call.start(delay, mayHedge);
+        });
+    }
+
+    private static final class HedgedCall<T> implements Disposable {
+        private final MonoSink<T> sink;
+        private final Supplier<Mono<T>> attempt;
+        private final Disposable.Composite running = Disposables.composite();
+        private int attemptsRunning;
+        private boolean finished;
+
+        HedgedCall(MonoSink<T> sink, Supplier<Mono<T>> attempt) {
+            this.sink = sink;
+            this.attempt = attempt;
+        }
+
+        void start(Duration delay, BooleanSupplier mayHedge) {
+            synchronized (this) {
+                attemptsRunning++;
+            }
+            subscribeAttempt();
+            running.add(Mono.delay(delay).subscribe(tick -> {
+                synchronized (this) {
+                    if (finished || !mayHedge.getAsBoolean()) {
+                        return;
+                    }
+                    attemptsRunning++;
+                }
+                subscribeAttempt();
+            }));
+        }
+
+        private void subscribeAttempt() {
+            running.add(Mono.defer(attempt).subscribe(this::onValue, this::onError, () -> onValue(null)));
+        }
+
+        private void onValue(T value) {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+            }
+            running.dispose();
+            if (value != null) {
+                sink.success(value);
+            } else {
+                sink.success();
+            }
+        }
+
+        private void onError(Throwable e) {
+            synchronized (this) {
+                attemptsRunning--;
+                if (finished || attemptsRunning > 0) {
+                    return;
+                }
+                finished = true;
+            }
+            running.dispose();
+            sink.error(e);
+        }
+
+        @Override
+        public void dispose() {
+            synchronized (this) {
+                finished = true;
+            }
+            running.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return running.isDisposed();
+        }
+    }
+}
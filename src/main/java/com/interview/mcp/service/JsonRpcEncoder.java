@@ -0,0 +1,181 @@
+package com.interview.mcp.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.interview.mcp.schema.McpSchema;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes JSON-RPC requests field by field rather than building a map for Jackson to
+ * walk. The envelope comes from pre-encoded fragments, including one per tool for
+ * everything of a tools/call request up to its arguments, so only the id, params and
+ * arguments are serialized per request. Any other message, such as a notification,
+ * is written by Jackson as usual.
+ */
+public class JsonRpcEncoder {
+
+    /**
+     * Netty releases these buffers once their bytes are on the socket
+     */
+    private static final DataBufferFactory POOLED_BUFFERS = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    // Tool names come from callers, so only this many prefixes are kept
+    private static final int MAX_TOOL_PREFIXES = 1024;
+
+    private static final SerializedString ENVELOPE_START = new SerializedString("{\"jsonrpc\":\"2.0\",\"id\":");
+    private static final SerializedString METHOD_FIELD = new SerializedString(",\"method\":");
+    private static final SerializedString PARAMS_FIELD = new SerializedString(",\"params\":");
+    private static final SerializedString META_FIELD = new SerializedString("\"_meta\":{");
+    private static final SerializedString PROGRESS_TOKEN_FIELD = new SerializedString("\"progressToken\":");
+
+    private final ObjectWriter valueWriter;
+    private final JsonFactory jsonFactory;
+    private final Map<String, SerializedString> toolCallPrefixes = new ConcurrentHashMap<>();
+
+    public JsonRpcEncoder(ObjectMapper objectMapper) {
+        // Every message must stay on one line, and stdio flushes only once its queue is drained
+        this.valueWriter = objectMapper.writer()
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Encode a message into a pooled buffer
+     */
+    public DataBuffer encode(Object message) {
+        DataBuffer buffer = POOLED_BUFFERS.allocateBuffer(INITIAL_BUFFER_SIZE);
+        try (OutputStream out = buffer.asOutputStream();
+             JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            write(message, generator);
+        } catch (IOException | RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw new IllegalArgumentException("JSON-RPC message cannot be serialized", e);
+        }
+        return buffer;
+    }
+
+    /**
+     * Write a request, a batch of requests, or any other message. The fragments are
+     * written raw, so the generator must not separate root values.
+     */
+    public void write(Object message, JsonGenerator generator) throws IOException {
+        generator.setRootValueSeparator(null);
+        if (message instanceof McpSchema.JsonRpcRequest request) {
+            writeRequest(request, generator);
+        } else if (message instanceof List<?> batch) {
+            generator.writeRaw('[');
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    generator.writeRaw(',');
+                }
+                write(batch.get(i), generator);
+            }
+            generator.writeRaw(']');
+        } else {
+            valueWriter.writeValue(generator, message);
+        }
+    }
+
+    private void writeRequest(McpSchema.JsonRpcRequest request, JsonGenerator generator) throws IOException {
+        generator.writeRaw(ENVELOPE_START);
+        generator.writeNumber(request.id());
+
+        if (request.isToolCall()) {
+            generator.writeRaw(toolCallPrefix(request.toolName()));
+            valueWriter.writeValue(generator, request.arguments() != null ? request.arguments() : Map.of());
+            // Progress is only asked for by callers that gave a token to match it by
+            if (request.progressToken() != null || !request.traceContext().isEmpty()) {
+                generator.writeRaw(',');
+                writeMeta(request.progressToken(), request.traceContext(), generator);
+            }
+            generator.writeRaw("}}");
+            return;
+        }
+
+        generator.writeRaw(METHOD_FIELD);
+        generator.writeString(request.method());
+        Map<String, Object> params = request.params();
+        boolean hasParams = params != null && !params.isEmpty();
+        boolean hasMeta = !request.traceContext().isEmpty();
+        if (hasParams || hasMeta) {
+            generator.writeRaw(PARAMS_FIELD);
+            if (!hasMeta) {
+                valueWriter.writeValue(generator, params);
+            } else {
+                generator.writeRaw('{');
+                if (hasParams) {
+                    for (Map.Entry<String, Object> param : params.entrySet()) {
+                        generator.writeString(param.getKey());
+                        generator.writeRaw(':');
+                        valueWriter.writeValue(generator, param.getValue());
+                        generator.writeRaw(',');
+                    }
+                }
+                writeMeta(null, request.traceContext(), generator);
+                generator.writeRaw('}');
+            }
+        }
+        generator.writeRaw('}');
+    }
+
+    private void writeMeta(Object progressToken, Map<String, String> traceContext, JsonGenerator generator)
+            throws IOException {
+        generator.writeRaw(META_FIELD);
+        boolean first = true;
+        if (progressToken != null) {
+            generator.writeRaw(PROGRESS_TOKEN_FIELD);
+            // Tokens are request ids or strings; only anything else needs a serializer
+            if (progressToken instanceof Long id) {
+                generator.writeNumber(id);
+            } else if (progressToken instanceof String token) {
+                generator.writeString(token);
+            } else {
+                valueWriter.writeValue(generator, progressToken);
+            }
+            first = false;
+        }
+        for (Map.Entry<String, String> field : traceContext.entrySet()) {
+            if (!first) {
+                generator.writeRaw(',');
+            }
+            generator.writeString(field.getKey());
+            generator.writeRaw(':');
+            generator.writeString(field.getValue());
+            first = false;
+        }
+        generator.writeRaw('}');
+    }
+
+    /**
+     * Everything of a tools/call request from the method to the start of the arguments
+     */
+    private SerializedString toolCallPrefix(String toolName) {
+        SerializedString prefix = toolCallPrefixes.get(toolName);
+        if (prefix == null) {
+            prefix = new SerializedString(",\"method\":\"tools/call\",\"params\":{\"name\":\""
+                + new String(JsonStringEncoder.getInstance().quoteAsString(toolName)) + "\",\"arguments\":");
+            if (toolCallPrefixes.size() < MAX_TOOL_PREFIXES) {
+                toolCallPrefixes.put(toolName, prefix);
+            }
+        }
+        return prefix;
+    }
+}
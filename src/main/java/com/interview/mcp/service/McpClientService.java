@@ -4,18 +4,40 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.interview.mcp.config.McpServerProperties;
 import com.interview.mcp.model.*;
 import com.interview.mcp.schema.McpSchema;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Service
 public class McpClientService {
@@ -28,29 +50,87 @@ public class McpClientService {
     @Autowired
     private ObjectMapper objectMapper;
 
-    private final Map<String, McpServerConnection> activeConnections = new ConcurrentHashMap<>();
-    private final WebClient webClient;
+    @Autowired
+    private McpExecutionManager executionManager;
 
-    public McpClientService() {
-        this.webClient = WebClient.builder()
-            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-            .build();
-    }
+    @Autowired
+    private ToolResultCache toolResultCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ToolRegistry toolRegistry;
+
+    @Autowired
+    private McpHttpClientManager httpClientManager;
+
+    @Autowired
+    private McpTracing tracing;
+
+    private final Map<String, McpServerConnection> activeConnections = new ConcurrentHashMap<>();
+    private final Map<String, McpServerProperties.ServerConfig> serverConfigs = new ConcurrentHashMap<>();
+    // Configured servers that are still connecting in the background or failed to connect
+    private final Map<String, PendingServer> pendingServers = new ConcurrentHashMap<>();
+    private final SingleFlight<ToolCallKey, McpApiCallResult> toolCallFlights = new SingleFlight<>();
+    // Progress tokens of streamed calls, unique for the life of the client
+    private final AtomicLong progressTokens = new AtomicLong();
+    private final Map<String, ServerHealth> serverHealth = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> healthMeters = new ConcurrentHashMap<>();
+    // Guards changes to activeConnections, serverConfigs and the tool registry as a unit
+    private final Object connectionLock = new Object();
+
+    private Scheduler healthCheckScheduler;
+    private Disposable healthChecks;
 
     /**
      * Initialize connections to configured MCP servers
      */
     @PostConstruct
     public void initialize() {
+        FunctionCounter.builder("mcp.singleflight.calls", toolCallFlights, SingleFlight::getCalls)
+            .description("Tool calls that went through request coalescing")
+            .register(meterRegistry);
+        FunctionCounter.builder("mcp.singleflight.deduplicated", toolCallFlights, SingleFlight::getDeduplicatedCalls)
+            .description("Tool calls that joined an identical call already in flight")
+            .register(meterRegistry);
+        Gauge.builder("mcp.singleflight.in.flight", toolCallFlights, SingleFlight::getInFlightCalls)
+            .description("Distinct tool calls currently in flight")
+            .register(meterRegistry);
+
         logger.info("Initializing MCP Client Service with {} configured servers", 
                    mcpServerProperties.getServers().size());
 
-        for (McpServerProperties.ServerConfig serverConfig : mcpServerProperties.getServers()) {
-            try {
-                connectToServer(serverConfig);
-            } catch (Exception e) {
-                logger.error("Failed to connect to MCP server: {}", serverConfig.getName(), e);
+        // All servers connect at once; startup only waits for them up to the startup timeout
+        List<McpServerProperties.ServerConfig> configs = mcpServerProperties.getServers();
+        CountDownLatch settled = new CountDownLatch(configs.size());
+        for (McpServerProperties.ServerConfig serverConfig : configs) {
+            pendingServers.put(serverConfig.getName(), new PendingServer(serverConfig, null));
+            connectConfiguredServer(serverConfig).subscribe(
+                null,
+                e -> {
+                    logger.error("Failed to connect to MCP server: {}", serverConfig.getName(), e);
+                    settled.countDown();
+                },
+                settled::countDown);
+        }
+
+        Duration startupTimeout = mcpServerProperties.getExecution().getStartupTimeout();
+        try {
+            if (!settled.await(startupTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("{} of {} MCP servers not ready after {}, continuing to connect in the background",
+                           settled.getCount(), configs.size(), startupTimeout);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        McpServerProperties.HealthCheckSettings healthCheck = mcpServerProperties.getExecution().getHealthCheck();
+        if (healthCheck.isEnabled()) {
+            // This thread only starts the checks; pings and reconnects complete on the MCP scheduler
+            healthCheckScheduler = Schedulers.newSingle("mcp-health-check", true);
+            healthChecks = Flux.interval(healthCheck.getInterval(), healthCheckScheduler)
+                .subscribe(tick -> checkServers());
         }
     }
 
@@ -61,28 +141,26 @@ public class McpClientService {
      * @param serverName Optional name for the server
      * @return Connection result
      */
-    public CompletableFuture<McpConnectionResult> connectToMcpServer(String serverUrl, String serverName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String name = serverName != null ? serverName : "server-" + System.currentTimeMillis();
-                McpServerProperties.ServerConfig config = new McpServerProperties.ServerConfig(
-                    name, serverUrl, McpServerProperties.TransportType.HTTP);
-
-                McpServerConnection connection = connectToServer(config);
-
-// Convert List<String> to List<McpToolInfo> for the connection result
-List<String> toolNames = connection.getAvailableTools();
-List<McpToolInfo> toolInfos = new ArrayList<>();
-for (String toolName : toolNames) {
-    toolInfos.add(new McpToolInfo(toolName, "", name, config.getUrl(), null));
-}
-
-return new McpConnectionResult(true, "Successfully connected to " + name, toolInfos);
-
-            } catch (Exception e) {
-                logger.error("Failed to connect to MCP server: {}", serverUrl, e);
-                return new McpConnectionResult(false, "Connection failed: " + e.getMessage(), null);
-            }
+    public Mono<McpConnectionResult> connectToMcpServer(String serverUrl, String serverName) {
+        return Mono.defer(() -> {
+            String name = serverName != null ? serverName : "server-" + System.currentTimeMillis();
+            McpServerProperties.ServerConfig config = new McpServerProperties.ServerConfig(
+                name, serverUrl, McpServerProperties.TransportType.HTTP);
+
+            return connectToServer(config)
+                .map(connection -> {
+                    // Convert List<String> to List<McpToolInfo> for the connection result
+                    List<McpToolInfo> toolInfos = new ArrayList<>();
+                    for (String toolName : connection.getAvailableTools()) {
+                        toolInfos.add(new McpToolInfo(toolName, "", name, config.getUrl(), null));
+                    }
+
+                    return new McpConnectionResult(true, "Successfully connected to " + name, toolInfos);
+                });
+        })
+        .onErrorResume(e -> {
+            logger.error("Failed to connect to MCP server: {}", serverUrl, e);
+            return Mono.just(new McpConnectionResult(false, "Connection failed: " + e.getMessage(), null));
         });
     }
 
@@ -90,29 +168,28 @@ return new McpConnectionResult(true, "Successfully connected to " + name, toolIn
      * Get list of all available tools from all connected servers
      */
     public List<McpToolInfo> getAvailableTools() {
-        List<McpToolInfo> allTools = new ArrayList<>();
+        return toolRegistry.getTools();
+    }
 
-        for (Map.Entry<String, McpServerConnection> entry : activeConnections.entrySet()) {
-            String serverName = entry.getKey();
-            McpServerConnection connection = entry.getValue();
+    /**
+     * Get all available tools as a pre-serialized JSON array
+     */
+    public byte[] getAvailableToolsJson() {
+        return toolRegistry.getToolsJson();
+    }
 
-            try {
-                List<McpSchema.Tool> tools = connection.listTools();
-                for (McpSchema.Tool tool : tools) {
-                    allTools.add(new McpToolInfo(
-                        tool.name(),
-                        tool.description(),
-                        serverName,
-                        connection.getServerUrl(),
-                        tool.inputSchema()
-                    ));
-                }
-            } catch (Exception e) {
-                logger.error("Failed to list tools from server: {}", serverName, e);
-            }
-        }
+    /**
+     * Get the tools of one server, empty if the server is not connected
+     */
+    public List<McpToolInfo> getServerTools(String serverName) {
+        return toolRegistry.getTools(serverName);
+    }
 
-        return allTools;
+    /**
+     * Look up one tool of one server
+     */
+    public Optional<McpToolInfo> findTool(String serverName, String toolName) {
+        return toolRegistry.findTool(serverName, toolName);
     }
 
     /**
@@ -123,28 +200,341 @@ return new McpConnectionResult(true, "Successfully connected to " + name, toolIn
      * @param parameters Parameters for the tool
      * @return Result of the tool execution
      */
-    public CompletableFuture<McpApiCallResult> callTool(String serverName, String toolName, 
-                                                       Map<String, Object> parameters) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                McpServerConnection connection = activeConnections.get(serverName);
-                if (connection == null) {
-                    return new McpApiCallResult(false, "Server not found: " + serverName, null);
+    public Mono<McpApiCallResult> callTool(String serverName, String toolName,
+                                           Map<String, Object> parameters) {
+        return callTool(serverName, toolName, parameters, null);
+    }
+
+    /**
+     * Call a specific tool on an MCP server within a caller-supplied time budget
+     * 
+     * @param deadline How long the caller is willing to wait, or null for the configured
+     *                 tool timeout; the shorter of the two applies
+     * @return Result of the tool execution, or a failure once the time is up. The call is
+     *         then cancelled on the server unless other callers are still waiting for it.
+     */
+    public Mono<McpApiCallResult> callTool(String serverName, String toolName,
+                                           Map<String, Object> parameters, Duration deadline) {
+        return Mono.defer(() -> {
+            McpServerConnection connection = activeConnections.get(serverName);
+            McpServerProperties.ServerConfig config = serverConfigs.get(serverName);
+            if (connection == null || config == null) {
+                return Mono.just(new McpApiCallResult(false, "Server not found: " + serverName, null));
+            }
+
+            McpExecutionManager.ServerGuards guards = executionManager.guards(config);
+            McpServerProperties.ToolConfig toolConfig = config.getTool(toolName);
+            boolean idempotent = toolConfig != null && toolConfig.isIdempotent();
+
+            Supplier<Mono<McpSchema.CallToolResult>> guarded = guardedAttempt(guards,
+                () -> connection.callToolAsync(toolName, parameters));
+            Supplier<Mono<McpSchema.CallToolResult>> attempt = idempotent && toolConfig.isHedge()
+                ? hedged(guarded, guards, executionManager.hedgedToolLatency(config, toolName))
+                : guarded;
+            McpServerProperties.RetrySettings retry = retrySettings(config, toolConfig);
+
+            Supplier<Mono<McpApiCallResult>> send = () -> withRetries(attempt, retry, idempotent, guards.retryBudget())
+                .map(this::toApiCallResult);
+            Mono<McpApiCallResult> result;
+            if (idempotent) {
+                // Identical calls already in flight are joined rather than sent again
+                ToolCallKey key = ToolCallKey.of(serverName, toolName, parameters);
+                Supplier<Mono<McpApiCallResult>> call = () -> toolCallFlights.execute(key, send);
+                result = toolConfig.isCache()
+                    ? toolResultCache.get(key, toolConfig.getCacheTtl(), call)
+                    : call.get();
+            } else {
+                // Two requests to create or send something must both reach the server, and a
+                // cached result would stand in for a call that changes something; nor are the
+                // arguments serialized for a key that would go unused
+                result = send.get();
+            }
+
+            Duration timeout = toolTimeout(config, toolName);
+            if (deadline != null && deadline.compareTo(timeout) < 0) {
+                timeout = deadline;
+            }
+            return observeToolCall(serverName, toolName, withTimeout(result, timeout));
+        })
+        .onErrorResume(e -> Mono.just(failedCallResult(serverName, toolName, e)));
+    }
+
+    /**
+     * Call a tool for a caller that forwards its result as it is. The data of a
+     * successful exchange is a {@link McpSchema.RawCallToolResult}, the result as the
+     * server sent it, whose buffer the caller must release. A buffer cannot be handed
+     * to more than one caller, so these calls are neither coalesced, cached nor hedged;
+     * they do go through the server's guards, retries and timeout like any other call.
+     *
+     * @param deadline How long the caller is willing to wait, or null for the configured tool timeout
+     */
+    public Mono<McpApiCallResult> callToolRaw(String serverName, String toolName,
+                                              Map<String, Object> parameters, Duration deadline) {
+        return Mono.defer(() -> {
+            McpServerConnection connection = activeConnections.get(serverName);
+            McpServerProperties.ServerConfig config = serverConfigs.get(serverName);
+            if (connection == null || config == null) {
+                return Mono.just(new McpApiCallResult(false, "Server not found: " + serverName, null));
+            }
+
+            McpExecutionManager.ServerGuards guards = executionManager.guards(config);
+            McpServerProperties.ToolConfig toolConfig = config.getTool(toolName);
+            boolean idempotent = toolConfig != null && toolConfig.isIdempotent();
+
+            Supplier<Mono<McpSchema.RawCallToolResult>> attempt = guardedAttempt(guards,
+                () -> connection.callToolRawAsync(toolName, parameters));
+            Mono<McpApiCallResult> result = withRetries(attempt, retrySettings(config, toolConfig), idempotent,
+                                                        guards.retryBudget())
+                .map(raw -> new McpApiCallResult(!raw.isError(), raw.isError() ? "Tool execution failed" : "Success", raw));
+
+            Duration timeout = toolTimeout(config, toolName);
+            if (deadline != null && deadline.compareTo(timeout) < 0) {
+                timeout = deadline;
+            }
+            return observeToolCall(serverName, toolName, withTimeout(result, timeout));
+        })
+        .onErrorResume(e -> Mono.just(failedCallResult(serverName, toolName, e)))
+        .doOnDiscard(McpApiCallResult.class, McpClientService::releaseRawResult);
+    }
+
+    private static void releaseRawResult(McpApiCallResult result) {
+        if (result.getData() instanceof McpSchema.RawCallToolResult raw) {
+            raw.release();
+        }
+    }
+
+    /**
+     * Call a tool and stream the progress the server reports while it runs, ending with
+     * the result. Each stream needs its own progress, so these calls are neither
+     * coalesced, cached nor hedged; they do go through the server's guards, retries
+     * and timeout like any other call.
+     *
+     * @param deadline How long the caller is willing to wait, or null for the configured tool timeout
+     * @return Progress events followed by exactly one result event
+     */
+    public Flux<McpToolCallEvent> callToolStreaming(String serverName, String toolName,
+                                                    Map<String, Object> parameters, Duration deadline) {
+        return Flux.defer(() -> {
+            McpServerConnection connection = activeConnections.get(serverName);
+            McpServerProperties.ServerConfig config = serverConfigs.get(serverName);
+            if (connection == null || config == null) {
+                return Flux.just(McpToolCallEvent.result(
+                    new McpApiCallResult(false, "Server not found: " + serverName, null)));
+            }
+
+            McpExecutionManager.ServerGuards guards = executionManager.guards(config);
+            McpServerProperties.ToolConfig toolConfig = config.getTool(toolName);
+            boolean idempotent = toolConfig != null && toolConfig.isIdempotent();
+            Long progressToken = progressTokens.incrementAndGet();
+            String progressTokenText = progressToken.toString();
+
+            Supplier<Mono<McpSchema.CallToolResult>> attempt = guardedAttempt(guards,
+                () -> connection.callToolAsync(toolName, parameters, progressToken));
+            Mono<McpApiCallResult> result = withRetries(attempt, retrySettings(config, toolConfig), idempotent,
+                                                        guards.retryBudget())
+                .map(this::toApiCallResult);
+
+            Duration timeout = toolTimeout(config, toolName);
+            if (deadline != null && deadline.compareTo(timeout) < 0) {
+                timeout = deadline;
+            }
+
+            Flux<McpToolCallEvent> progress = connection.progressNotifications()
+                .filter(notification -> progressTokenText.equals(String.valueOf(notification.progressToken())))
+                .map(notification -> McpToolCallEvent.progress(
+                    notification.progress(), notification.total(), notification.message()));
+
+            // Progress is subscribed to before the call is sent, and dropped once the result is in
+            return Flux.merge(progress, observeToolCall(serverName, toolName, withTimeout(result, timeout))
+                    .onErrorResume(e -> Mono.just(failedCallResult(serverName, toolName, e)))
+                    .map(McpToolCallEvent::result))
+                .takeUntil(event -> McpToolCallEvent.RESULT.equals(event.getType()));
+        });
+    }
+
+    /**
+     * Call several tools on one MCP server in a single JSON-RPC batch
+     * 
+     * @param serverName Name of the server
+     * @param calls Tool names and parameters, in the order results should be returned
+     * @return Batch result whose data is the list of per-call results in input order
+     */
+    public Mono<McpApiCallResult> callTools(String serverName, List<McpSchema.ToolCall> calls) {
+        return Mono.defer(() -> {
+            McpServerConnection connection = activeConnections.get(serverName);
+            McpServerProperties.ServerConfig config = serverConfigs.get(serverName);
+            if (connection == null || config == null) {
+                return Mono.just(new McpApiCallResult(false, "Server not found: " + serverName, null));
+            }
+
+            // The batch completes as a whole, so it gets the longest timeout of its tools
+            Duration timeout = calls.stream()
+                .map(call -> toolTimeout(config, call.name()))
+                .max(Duration::compareTo)
+                .orElse(mcpServerProperties.getExecution().getDefaultToolTimeout());
+
+            // The batch may be sent again after any transport error only if all its tools allow it
+            boolean idempotent = calls.stream().allMatch(call -> {
+                McpServerProperties.ToolConfig toolConfig = config.getTool(call.name());
+                return toolConfig != null && toolConfig.isIdempotent();
+            });
+
+            McpExecutionManager.ServerGuards guards = executionManager.guards(config);
+            Supplier<Mono<List<McpSchema.CallToolResult>>> attempt = guardedAttempt(guards,
+                () -> connection.callToolsAsync(calls));
+            return withTimeout(withRetries(attempt, retrySettings(config, null), idempotent, guards.retryBudget()), timeout)
+                .map(results -> new McpApiCallResult(
+                    true,
+                    "Batch of " + results.size() + " tool calls completed",
+                    results.stream().map(this::toApiCallResult).toList()
+                ));
+        })
+        .onErrorResume(e -> {
+            if (e instanceof TimeoutException || e instanceof CircuitBreaker.CircuitBreakerOpenException) {
+                logger.warn("Batch of {} tool calls on server {}: {}", calls.size(), serverName, e.getMessage());
+                return Mono.just(new McpApiCallResult(false, e.getMessage(), null));
+            }
+            logger.error("Failed to call {} tools in batch on server {}", calls.size(), serverName, e);
+            return Mono.just(new McpApiCallResult(false, "Batch tool call failed: " + e.getMessage(), null));
+        });
+    }
+
+    private McpApiCallResult failedCallResult(String serverName, String toolName, Throwable e) {
+        if (e instanceof TimeoutException || e instanceof CircuitBreaker.CircuitBreakerOpenException) {
+            logger.warn("Call to tool {} on server {}: {}", toolName, serverName, e.getMessage());
+            return new McpApiCallResult(false, e.getMessage(), null);
+        }
+        logger.error("Failed to call tool {} on server {}", toolName, serverName, e);
+        return new McpApiCallResult(false, "Tool call failed: " + e.getMessage(), null);
+    }
+
+    private Duration toolTimeout(McpServerProperties.ServerConfig config, String toolName) {
+        McpServerProperties.ToolConfig toolConfig = config.getTool(toolName);
+        return toolConfig != null && toolConfig.getTimeout() != null
+            ? toolConfig.getTimeout()
+            : mcpServerProperties.getExecution().getDefaultToolTimeout();
+    }
+
+    private McpServerProperties.RetrySettings retrySettings(McpServerProperties.ServerConfig config,
+                                                            McpServerProperties.ToolConfig toolConfig) {
+        McpServerProperties.RetrySettings settings = mcpServerProperties.getExecution().getRetry();
+        if (config.getRetry() != null) {
+            settings = config.getRetry().withDefaults(settings);
+        }
+        if (toolConfig != null && toolConfig.getRetry() != null) {
+            settings = toolConfig.getRetry().withDefaults(settings);
+        }
+        return settings;
+    }
+
+    /**
+     * One attempt through the server's circuit breaker and concurrency limit, with its
+     * outcome counted against the retry budget
+     */
+    private static <T> Supplier<Mono<T>> guardedAttempt(McpExecutionManager.ServerGuards guards,
+                                                       Supplier<Mono<T>> call) {
+        return () -> guards.circuitBreaker().execute(() -> guards.concurrencyLimit().execute(call))
+            .doOnSuccess(result -> guards.retryBudget().onSuccess())
+            .doOnError(e -> {
+                if (isRetryable(e, true)) {
+                    guards.retryBudget().onFailure();
                 }
+            });
+    }
 
-                McpSchema.CallToolResult result = connection.callTool(toolName, parameters);
+    /**
+     * Span of a tool call from the client's point of view, covering the cache, joining
+     * identical calls, the server's guards and retries. The time until the first
+     * request span starts is what the call spent queued.
+     */
+    private <T> Mono<T> observeToolCall(String serverName, String toolName, Mono<T> call) {
+        return tracing.observe("mcp.tool.call", null,
+            KeyValues.of("mcp.server", serverName),
+            KeyValues.of("mcp.tool.name", toolName),
+            observation -> call);
+    }
 
-                return new McpApiCallResult(
-                    !result.isError(),
-                    result.isError() ? "Tool execution failed" : "Success",
-                    result.content()
-                );
+    /**
+     * Retry failed attempts with exponential backoff and jitter while the retry budget allows
+     */
+    private static <T> Mono<T> withRetries(Supplier<Mono<T>> attempt, McpServerProperties.RetrySettings retry,
+                                           boolean idempotent, RetryBudget budget) {
+        Mono<T> call = Mono.defer(attempt);
+        if (retry.getMaxRetries() <= 0) {
+            return call;
+        }
+        return call.retryWhen(Retry.backoff(retry.getMaxRetries(), retry.getInitialBackoff())
+            .maxBackoff(retry.getMaxBackoff())
+            .jitter(retry.getJitter())
+            .filter(e -> isRetryable(e, idempotent) && budget.tryAcquire())
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
 
-            } catch (Exception e) {
-                logger.error("Failed to call tool {} on server {}", toolName, serverName, e);
-                return new McpApiCallResult(false, "Tool call failed: " + e.getMessage(), null);
+    /**
+     * A failure is retried when the request never reached the server, or, for idempotent
+     * tools, after any transport error or an overloaded/failing HTTP response
+     */
+    private static boolean isRetryable(Throwable e, boolean idempotent) {
+        if (e instanceof CircuitBreaker.CircuitBreakerOpenException || e instanceof Bulkhead.BulkheadFullException) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) {
+                return true;
             }
+        }
+        if (!idempotent) {
+            return false;
+        }
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        return e instanceof WebClientRequestException || e instanceof IOException;
+    }
+
+    /**
+     * Hedge the attempt after the tool's recent latency percentile, recording the latency
+     * of successful attempts for the next calls
+     */
+    private Supplier<Mono<McpSchema.CallToolResult>> hedged(Supplier<Mono<McpSchema.CallToolResult>> attempt,
+                                                           McpExecutionManager.ServerGuards guards, Timer latency) {
+        Supplier<Mono<McpSchema.CallToolResult>> timed = () -> Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.get().doOnSuccess(result ->
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
         });
+        return () -> Hedging.execute(timed, hedgeDelay(latency), guards.retryBudget()::tryAcquire);
+    }
+
+    private Duration hedgeDelay(Timer latency) {
+        McpServerProperties.HedgeSettings hedging = mcpServerProperties.getExecution().getHedging();
+        if (latency.count() < hedging.getMinSamples()) {
+            return hedging.getInitialDelay();
+        }
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == hedging.getPercentile()) {
+                long nanos = (long) value.value(TimeUnit.NANOSECONDS);
+                return Duration.ofNanos(Math.max(nanos, hedging.getMinDelay().toNanos()));
+            }
+        }
+        return hedging.getInitialDelay();
+    }
+
+    /**
+     * Give up on a call after the timeout; cancelling it aborts the exchange with the server
+     */
+    private static <T> Mono<T> withTimeout(Mono<T> call, Duration timeout) {
+        return call.timeout(timeout, Mono.error(() -> new TimeoutException(
+            "Tool call timed out after " + timeout.toMillis() + " ms")));
+    }
+
+    private McpApiCallResult toApiCallResult(McpSchema.CallToolResult result) {
+        return new McpApiCallResult(
+            !result.isError(),
+            result.isError() ? "Tool execution failed" : "Success",
+            result.errorMessage() != null ? result.errorMessage() : result.content()
+        );
     }
 
     /**
@@ -156,74 +546,166 @@ return new McpConnectionResult(true, "Successfully connected to " + name, toolIn
      * @param payload Request payload (for POST/PUT requests)
      * @return API call result
      */
-    public CompletableFuture<McpApiCallResult> callApiEndpoint(String serverUrl, String method, 
-                                                              String endpoint, Object payload) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String fullUrl = serverUrl.endsWith("/") ? serverUrl + endpoint : serverUrl + "/" + endpoint;
-
-                Mono<String> responseMono;
-
-                switch (method.toUpperCase()) {
-                    case "GET":
-                        responseMono = webClient.get()
-                            .uri(fullUrl)
-                            .retrieve()
-                            .bodyToMono(String.class);
-                        break;
-                    case "POST":
-                        responseMono = webClient.post()
-                            .uri(fullUrl)
-                            .bodyValue(payload != null ? payload : "")
-                            .retrieve()
-                            .bodyToMono(String.class);
-                        break;
-                    case "PUT":
-                        responseMono = webClient.put()
-                            .uri(fullUrl)
-                            .bodyValue(payload != null ? payload : "")
-                            .retrieve()
-                            .bodyToMono(String.class);
-                        break;
-                    case "DELETE":
-                        responseMono = webClient.delete()
-                            .uri(fullUrl)
-                            .retrieve()
-                            .bodyToMono(String.class);
-                        break;
-                    default:
-                        return new McpApiCallResult(false, "Unsupported HTTP method: " + method, null);
-                }
+    public Mono<McpApiCallResult> callApiEndpoint(String serverUrl, String method,
+                                                  String endpoint, Object payload) {
+        return Mono.defer(() -> {
+            String fullUrl = serverUrl.endsWith("/") ? serverUrl + endpoint : serverUrl + "/" + endpoint;
+            WebClient webClient = httpClientManager.defaultClient();
+
+            Mono<String> responseMono;
+
+            switch (method.toUpperCase()) {
+                case "GET":
+                    responseMono = webClient.get()
+                        .uri(fullUrl)
+                        .retrieve()
+                        .bodyToMono(String.class);
+                    break;
+                case "POST":
+                    responseMono = webClient.post()
+                        .uri(fullUrl)
+                        .bodyValue(payload != null ? payload : "")
+                        .retrieve()
+                        .bodyToMono(String.class);
+                    break;
+                case "PUT":
+                    responseMono = webClient.put()
+                        .uri(fullUrl)
+                        .bodyValue(payload != null ? payload : "")
+                        .retrieve()
+                        .bodyToMono(String.class);
+                    break;
+                case "DELETE":
+                    responseMono = webClient.delete()
+                        .uri(fullUrl)
+                        .retrieve()
+                        .bodyToMono(String.class);
+                    break;
+                default:
+                    return Mono.just(new McpApiCallResult(false, "Unsupported HTTP method: " + method, null));
+            }
 
-                String response = responseMono.block();
-                return new McpApiCallResult(true, "API call successful", response);
+            return responseMono
+                .map(response -> new McpApiCallResult(true, "API call successful", response))
+                .defaultIfEmpty(new McpApiCallResult(true, "API call successful", null));
+        })
+        .onErrorResume(e -> {
+            logger.error("Failed to call API endpoint {} {} on server {}", method, endpoint, serverUrl, e);
+            return Mono.just(new McpApiCallResult(false, "API call failed: " + e.getMessage(), null));
+        });
+    }
 
-            } catch (Exception e) {
-                logger.error("Failed to call API endpoint {} {} on server {}", method, endpoint, serverUrl, e);
-                return new McpApiCallResult(false, "API call failed: " + e.getMessage(), null);
+    /**
+     * Look up a resource in a server's catalog
+     * 
+     * @return The resource, or empty if the server is unknown or does not list it
+     */
+    public Optional<McpSchema.Resource> findResource(String serverName, String uri) {
+        McpServerConnection connection = activeConnections.get(serverName);
+        if (connection == null) {
+            return Optional.empty();
+        }
+        return connection.findResource(uri);
+    }
+
+    /**
+     * Fetch again the tool and resource lists a server reported as changed, or both when forced
+     *
+     * @return false if the server is not connected
+     */
+    public Mono<Boolean> refreshCatalog(String serverName, boolean force) {
+        return Mono.defer(() -> {
+            McpServerConnection connection = activeConnections.get(serverName);
+            if (connection == null || !connection.isConnected()) {
+                return Mono.just(false);
             }
+            return connection.refreshCatalogAsync(force).thenReturn(true);
         });
     }
 
+    /**
+     * Stream the content of a resource from an MCP server chunk by chunk
+     * 
+     * @param serverName Name of the server
+     * @param uri URI of the resource
+     * @return Raw payload bytes: text as UTF-8, blobs base64-decoded
+     */
+    public Flux<DataBuffer> readResourceContent(String serverName, String uri) {
+        return Flux.defer(() -> {
+            McpServerConnection connection = activeConnections.get(serverName);
+            if (connection == null) {
+                return Flux.error(new IllegalArgumentException("Server not found: " + serverName));
+            }
+            return connection.readResourceContent(uri);
+        })
+        .doOnError(e -> logger.error("Failed to read resource {} from server {}", uri, serverName, e));
+    }
+
+    /**
+     * Check whether a server is known to this client
+     */
+    public boolean hasServer(String serverName) {
+        return activeConnections.containsKey(serverName);
+    }
+
     /**
      * Get list of connected servers
      */
     public List<McpServerInfo> getConnectedServers() {
-        return activeConnections.entrySet().stream()
-            .map(entry -> new McpServerInfo(
-                entry.getKey(),
-                entry.getValue().getServerUrl(),
-                entry.getValue().isConnected(),
-                entry.getValue().getAvailableTools().size()
-            ))
-            .toList();
+        List<McpServerInfo> servers = new ArrayList<>(activeConnections.entrySet().stream()
+            .map(entry -> {
+                McpServerInfo info = new McpServerInfo(
+                    entry.getKey(),
+                    entry.getValue().getServerUrl(),
+                    entry.getValue().isConnected(),
+                    entry.getValue().getAvailableTools().size()
+                );
+                info.setState(entry.getValue().isConnected() ? "CONNECTED" : "DISCONNECTED");
+                ServerHealth health = serverHealth.get(entry.getKey());
+                if (health != null) {
+                    info.setPingLatencyMs(health.getLastPingMillis());
+                    info.setUptimeSeconds(health.getUptimeSeconds());
+                }
+                // Guards are created on the first call; until then the circuit is simply closed
+                McpExecutionManager.ServerGuards guards = executionManager.findGuards(entry.getKey());
+                if (guards != null) {
+                    info.setCircuitState(guards.circuitBreaker().getState().name());
+                    info.setFailureRate(guards.circuitBreaker().getFailureRate());
+                    info.setConcurrencyLimit(guards.bulkhead().getLimit());
+                    info.setActiveCalls(guards.bulkhead().getActiveCalls());
+                    info.setQueuedCalls(guards.bulkhead().getQueuedCalls());
+                }
+                return info;
+            })
+            .toList());
+
+        for (PendingServer pending : pendingServers.values()) {
+            // A server that just connected may briefly be in both maps
+            if (!activeConnections.containsKey(pending.config().getName())) {
+                McpServerInfo info = new McpServerInfo(pending.config().getName(), pending.config().getUrl(), false, 0);
+                info.setState(pending.error() == null ? "CONNECTING" : "FAILED");
+                info.setLastError(pending.error());
+                servers.add(info);
+            }
+        }
+        return servers;
     }
 
     /**
      * Disconnect from a specific server
      */
     public boolean disconnectFromServer(String serverName) {
-        McpServerConnection connection = activeConnections.remove(serverName);
+        McpServerConnection connection;
+        synchronized (connectionLock) {
+            pendingServers.remove(serverName);
+            connection = activeConnections.remove(serverName);
+            serverConfigs.remove(serverName);
+            toolRegistry.remove(serverName);
+        }
+        executionManager.removeGuards(serverName);
+        removeHealth(serverName);
+        httpClientManager.release(serverName);
+        toolResultCache.invalidate(serverName);
         if (connection != null) {
             try {
                 connection.close();
@@ -239,34 +721,225 @@ return new McpConnectionResult(true, "Successfully connected to " + name, toolIn
     /**
      * Create connection to MCP server
      */
-    private McpServerConnection connectToServer(McpServerProperties.ServerConfig config) throws Exception {
-        logger.info("Connecting to MCP server: {} at {}", config.getName(), config.getUrl());
+    private Mono<McpServerConnection> connectToServer(McpServerProperties.ServerConfig config) {
+        return Mono.defer(() -> {
+            logger.info("Connecting to MCP server: {} at {}", config.getName(), config.getUrl());
+
+            McpServerConnection connection = switch (config.getTransport()) {
+                // STDIO transport for local MCP servers
+                case STDIO -> createStdioConnection(config);
+                // Streamable HTTP for remote MCP servers that push notifications
+                case STREAMABLE_HTTP -> createStreamableHttpConnection(config);
+                // HTTP transport for remote MCP servers
+                case HTTP -> createHttpConnection(config);
+            };
+
+            // Tool reloads after a restart or list change keep the registry current
+            connection.setToolsChangedListener(() -> refreshTools(config.getName(), connection));
+            // Meters are shared by name, so a connection replacing another gets its own only
+            // once it has taken over (see closeReplaced)
+            if (!activeConnections.containsKey(config.getName())) {
+                connection.setMetrics(new McpMetrics(meterRegistry, config.getName()));
+            }
+            connection.setTracing(tracing);
+
+            // Test the connection
+            return connection.initializeAsync()
+                .timeout(mcpServerProperties.getExecution().getInitializeTimeout())
+                .then(Mono.fromSupplier(() -> {
+                    McpServerConnection replaced;
+                    synchronized (connectionLock) {
+                        pendingServers.remove(config.getName());
+                        serverConfigs.put(config.getName(), config);
+                        replaced = activeConnections.put(config.getName(), connection);
+                        registerTools(config.getName(), connection);
+                    }
+                    if (replaced != null && replaced != connection) {
+                        closeReplaced(config.getName(), replaced, connection);
+                    }
+                    health(config.getName()).recordUp();
+                    logger.info("Successfully connected to MCP server: {}", config.getName());
+                    return connection;
+                }))
+                .doOnError(e -> {
+                    // The failed connection always goes, with any process or session it started;
+                    // the pool is kept if an earlier connection under this name still uses it
+                    if (!activeConnections.containsKey(config.getName())) {
+                        httpClientManager.release(config.getName());
+                    }
+                    closeUnused(config.getName(), connection);
+                });
+        });
+    }
 
-        McpServerConnection connection;
+    /**
+     * Close the connection that a connect under the same name replaced, off the calling
+     * thread. Meters are shared by name, so the new connection registers its own only
+     * once the replaced one has removed them.
+     */
+    private void closeReplaced(String serverName, McpServerConnection replaced, McpServerConnection connection) {
+        Mono.fromRunnable(() -> {
+                closeUnused(serverName, replaced);
+                connection.setMetrics(new McpMetrics(meterRegistry, serverName));
+            })
+            .subscribeOn(executionManager.scheduler())
+            .subscribe();
+    }
 
-        if (config.getTransport() == McpServerProperties.TransportType.STDIO) {
-            // STDIO transport for local MCP servers
-            connection = createStdioConnection(config);
-        } else {
-            // HTTP transport for remote MCP servers
-            connection = createHttpConnection(config);
+    /**
+     * Close a connection that never came up or was replaced, removing its meters and stopping any process it started
+     */
+    private void closeUnused(String serverName, McpServerConnection connection) {
+        try {
+            connection.close();
+        } catch (Exception e) {
+            logger.debug("Error closing unused connection to MCP server {}", serverName, e);
         }
+    }
 
-        // Test the connection
-        connection.initialize();
+    /**
+     * Connect to a server from mcp.servers, recording why it failed so health checks can retry it
+     */
+    private Mono<Void> connectConfiguredServer(McpServerProperties.ServerConfig config) {
+        return connectToServer(config)
+            .doOnError(e -> pendingServers.computeIfPresent(config.getName(),
+                (name, pending) -> new PendingServer(pending.config(), String.valueOf(e.getMessage()))))
+            .then();
+    }
 
-        activeConnections.put(config.getName(), connection);
-        logger.info("Successfully connected to MCP server: {}", config.getName());
+    /**
+     * Ping every connected server, and reconnect servers that stopped answering or
+     * never connected, each after its own backoff. Runs on the health check thread.
+     */
+    private void checkServers() {
+        Duration timeout = mcpServerProperties.getExecution().getHealthCheck().getTimeout();
 
-        return connection;
+        activeConnections.forEach((serverName, connection) -> {
+            ServerHealth health = health(serverName);
+            if (!health.tryStartCheck()) {
+                return;
+            }
+            Mono<Void> check = connection.isConnected()
+                ? connection.pingAsync(timeout)
+                    .doOnNext(health::recordPing)
+                    .then()
+                    .onErrorResume(e -> {
+                        logger.warn("MCP server {} did not answer ping, reconnecting: {}", serverName, e.getMessage());
+                        health.markDown();
+                        return reconnect(serverName, connection, health);
+                    })
+                : Mono.defer(() -> {
+                    health.markDown();
+                    return reconnect(serverName, connection, health);
+                });
+            check.doFinally(signal -> health.endCheck()).subscribe();
+        });
+
+        for (PendingServer pending : pendingServers.values()) {
+            String serverName = pending.config().getName();
+            ServerHealth health = health(serverName);
+            if (pending.error() == null || !health.tryStartCheck()) {
+                continue;
+            }
+            connectConfiguredServer(pending.config())
+                .onErrorResume(e -> {
+                    health.recordFailure();
+                    logger.warn("Failed to connect to MCP server {} (attempt {}): {}",
+                               serverName, health.getConsecutiveFailures(), e.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> health.endCheck())
+                .subscribe();
+        }
     }
 
-    private McpServerConnection createStdioConnection(McpServerProperties.ServerConfig config) throws Exception {
-        return new HttpMcpServerConnection(config.getName(), config.getUrl(), webClient, objectMapper);
+    /**
+     * Re-run the handshake with a server, which also reloads its tools and resources
+     */
+    private Mono<Void> reconnect(String serverName, McpServerConnection connection, ServerHealth health) {
+        return Mono.defer(() -> {
+            // Disconnected or replaced meanwhile
+            if (activeConnections.get(serverName) != connection) {
+                return Mono.<Void>empty();
+            }
+            return connection.reconnectAsync()
+                .timeout(mcpServerProperties.getExecution().getInitializeTimeout())
+                .doOnSuccess(ignored -> {
+                    health.recordUp();
+                    logger.info("Reconnected to MCP server: {}", serverName);
+                })
+                .onErrorResume(e -> {
+                    health.recordFailure();
+                    logger.warn("Failed to reconnect to MCP server {} (attempt {}): {}",
+                               serverName, health.getConsecutiveFailures(), e.getMessage());
+                    return Mono.empty();
+                });
+        });
+    }
+
+    private ServerHealth health(String serverName) {
+        return serverHealth.computeIfAbsent(serverName, name -> {
+            Timer pingLatency = Timer.builder("mcp.server.ping.latency")
+                .tag("server", name)
+                .description("Round-trip time of health check pings to the MCP server")
+                .register(meterRegistry);
+            ServerHealth health = new ServerHealth(mcpServerProperties.getExecution().getHealthCheck(), pingLatency);
+            healthMeters.put(name, List.of(
+                pingLatency,
+                Gauge.builder("mcp.server.uptime", health, ServerHealth::getUptimeSeconds)
+                    .tag("server", name)
+                    .baseUnit("seconds")
+                    .description("Time since the MCP server last came up, 0 while it is down")
+                    .register(meterRegistry),
+                Gauge.builder("mcp.server.up", health, h -> h.isUp() ? 1 : 0)
+                    .tag("server", name)
+                    .description("Whether the MCP server answered its last health check")
+                    .register(meterRegistry)));
+            return health;
+        });
+    }
+
+    private void removeHealth(String serverName) {
+        serverHealth.remove(serverName);
+        List<Meter> meters = healthMeters.remove(serverName);
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    /**
+     * Re-index the tools of a connection, unless it has been replaced or disconnected meanwhile
+     */
+    private void refreshTools(String serverName, McpServerConnection connection) {
+        synchronized (connectionLock) {
+            if (activeConnections.get(serverName) == connection) {
+                registerTools(serverName, connection);
+            }
+        }
     }
 
-    private McpServerConnection createHttpConnection(McpServerProperties.ServerConfig config) throws Exception {
-        return new HttpMcpServerConnection(config.getName(), config.getUrl(), webClient, objectMapper);
+    private void registerTools(String serverName, McpServerConnection connection) {
+        try {
+            toolRegistry.register(serverName, connection.getServerUrl(), connection.listTools());
+        } catch (Exception e) {
+            logger.error("Failed to list tools from server: {}", serverName, e);
+            toolRegistry.remove(serverName);
+        }
+    }
+
+    private McpServerConnection createStdioConnection(McpServerProperties.ServerConfig config) {
+        return new StdioMcpServerConnection(config.getName(), config.getUrl(), config.getCommand(),
+                                            config.getArgs(), objectMapper, executionManager.scheduler());
+    }
+
+    private McpServerConnection createHttpConnection(McpServerProperties.ServerConfig config) {
+        return new HttpMcpServerConnection(config.getName(), config.getUrl(), httpClientManager.client(config),
+                                           objectMapper, executionManager.scheduler());
+    }
+
+    private McpServerConnection createStreamableHttpConnection(McpServerProperties.ServerConfig config) {
+        return new StreamableHttpMcpServerConnection(config.getName(), config.getUrl(), httpClientManager.client(config),
+                                                     objectMapper, executionManager.scheduler());
     }
 
     /**
@@ -276,6 +949,11 @@ return new McpConnectionResult(true, "Successfully connected to " + name, toolIn
     public void cleanup() {
         logger.info("Cleaning up MCP connections...");
 
+        if (healthChecks != null) {
+            healthChecks.dispose();
+            healthCheckScheduler.dispose();
+        }
+
         for (Map.Entry<String, McpServerConnection> entry : activeConnections.entrySet()) {
             try {
                 entry.getValue().close();
@@ -285,6 +963,16 @@ return new McpConnectionResult(true, "Successfully connected to " + name, toolIn
             }
         }
 
-        activeConnections.clear();
+        synchronized (connectionLock) {
+            activeConnections.keySet().forEach(toolRegistry::remove);
+            activeConnections.clear();
+            serverConfigs.clear();
+            pendingServers.clear();
+        }
     }
+
+    /**
+     * A configured server without a connection yet; error is null while it is still connecting
+     */
+    private record PendingServer(McpServerProperties.ServerConfig config, String error) {}
 }
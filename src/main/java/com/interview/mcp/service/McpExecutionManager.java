@@ -0,0 +1,249 @@
+package com.interview.mcp.service;
+
+import com.interview.mcp.config.McpServerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the threads MCP work runs on and the per-server bulkheads, adaptive
+ * concurrency limits and circuit breakers.
+ *
+ * The execution mode is chosen once at startup from mcp.execution.mode: a bounded
+ * platform-thread pool with a bounded queue, or a virtual thread per task when the
+ * running JVM supports it.
+ */
+@Component
+public class McpExecutionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpExecutionManager.class);
+
+    @Autowired
+    private McpServerProperties mcpServerProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, ServerGuards> guards = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> guardMeters = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+    private Scheduler scheduler;
+    private Counter rejectedTasks;
+
+    @PostConstruct
+    public void initialize() {
+        McpServerProperties.Execution execution = mcpServerProperties.getExecution();
+        rejectedTasks = Counter.builder("mcp.execution.rejected")
+            .description("Tasks rejected because the MCP execution queue was full")
+            .register(meterRegistry);
+
+        ExecutorService created = null;
+        if (execution.getMode() == McpServerProperties.ExecutionMode.VIRTUAL) {
+            created = createVirtualThreadExecutor();
+        }
+        if (created == null) {
+            created = createBoundedExecutor(execution);
+        }
+
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, created, "mcp.execution");
+        scheduler = Schedulers.fromExecutorService(executor, "mcp-execution");
+    }
+
+    /**
+     * Scheduler for MCP work that must not run on Netty event-loop threads
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Bulkhead, adaptive concurrency limit, circuit breaker and retry budget guarding
+     * calls to one server, with the latency of its hedged tools keyed by tool name
+     */
+    public record ServerGuards(Bulkhead bulkhead, AdaptiveConcurrencyLimit concurrencyLimit,
+                               CircuitBreaker circuitBreaker, RetryBudget retryBudget,
+                               Map<String, Timer> hedgedToolLatencies) {}
+
+    /**
+     * Get or create the guards for calls to one server
+     */
+    public ServerGuards guards(McpServerProperties.ServerConfig config) {
+        return guards.computeIfAbsent(config.getName(), name -> createGuards(name, config));
+    }
+
+    /**
+     * Latency of successful calls to a hedged tool, with the hedging percentile published
+     */
+    public Timer hedgedToolLatency(McpServerProperties.ServerConfig config, String toolName) {
+        ServerGuards serverGuards = guards(config);
+        return serverGuards.hedgedToolLatencies().computeIfAbsent(toolName, tool -> {
+            Timer timer = Timer.builder("mcp.tool.hedged.latency")
+                .tag("server", config.getName())
+                .tag("tool", tool)
+                .publishPercentiles(mcpServerProperties.getExecution().getHedging().getPercentile())
+                .description("Latency of successful attempts of a hedged tool")
+                .register(meterRegistry);
+            guardMeters.computeIfAbsent(config.getName(), name -> new CopyOnWriteArrayList<>()).add(timer);
+            return timer;
+        });
+    }
+
+    /**
+     * Guards of a server, or null if no call has been made to it yet
+     */
+    public ServerGuards findGuards(String serverName) {
+        return guards.get(serverName);
+    }
+
+    /**
+     * Drop the guards of a server that has been disconnected
+     */
+    public void removeGuards(String serverName) {
+        guards.remove(serverName);
+        List<Meter> meters = guardMeters.remove(serverName);
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    private ServerGuards createGuards(String name, McpServerProperties.ServerConfig config) {
+        McpServerProperties.Execution execution = mcpServerProperties.getExecution();
+        int maxConcurrent = config.getMaxConcurrentCalls() != null
+            ? config.getMaxConcurrentCalls() : execution.getMaxConcurrentCallsPerServer();
+        int maxQueued = config.getMaxQueuedCalls() != null
+            ? config.getMaxQueuedCalls() : execution.getMaxQueuedCallsPerServer();
+        Bulkhead bulkhead = new Bulkhead(name, maxConcurrent, maxQueued);
+
+        McpServerProperties.ConcurrencyLimitSettings limitSettings = execution.getConcurrencyLimit();
+        AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(bulkhead,
+            limitSettings.isEnabled() ? limitSettings.getInitialLimit() : maxConcurrent,
+            limitSettings.isEnabled() ? limitSettings.getMinLimit() : maxConcurrent,
+            limitSettings.getLatencyThreshold(), limitSettings.getBackoffRatio());
+
+        McpServerProperties.CircuitBreakerSettings defaults = execution.getCircuitBreaker();
+        McpServerProperties.CircuitBreakerSettings breakerSettings = config.getCircuitBreaker() != null
+            ? config.getCircuitBreaker().withDefaults(defaults) : defaults;
+        CircuitBreaker circuitBreaker = new CircuitBreaker(name, breakerSettings);
+
+        McpServerProperties.RetryBudgetSettings budgetSettings = execution.getRetryBudget();
+        RetryBudget retryBudget = new RetryBudget(budgetSettings.getMaxTokens(), budgetSettings.getTokenRatio());
+
+        guardMeters.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>()).addAll(List.of(
+            Gauge.builder("mcp.bulkhead.active", bulkhead, Bulkhead::getActiveCalls)
+                .tag("server", name)
+                .description("Calls currently in flight to the MCP server")
+                .register(meterRegistry),
+            Gauge.builder("mcp.bulkhead.queued", bulkhead, Bulkhead::getQueuedCalls)
+                .tag("server", name)
+                .description("Calls waiting for a bulkhead permit")
+                .register(meterRegistry),
+            Gauge.builder("mcp.bulkhead.rejected", bulkhead, Bulkhead::getRejectedCalls)
+                .tag("server", name)
+                .description("Calls rejected because the bulkhead was full")
+                .register(meterRegistry),
+            Gauge.builder("mcp.concurrency.limit", bulkhead, Bulkhead::getLimit)
+                .tag("server", name)
+                .description("Current adaptive limit on concurrent calls to the MCP server")
+                .register(meterRegistry),
+            Gauge.builder("mcp.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("server", name)
+                .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry),
+            FunctionCounter.builder("mcp.circuit.rejected", circuitBreaker, CircuitBreaker::getRejectedCalls)
+                .tag("server", name)
+                .description("Calls refused because the circuit was open")
+                .register(meterRegistry),
+            FunctionCounter.builder("mcp.retry.attempts", retryBudget, RetryBudget::getRetries)
+                .tag("server", name)
+                .description("Retries and hedged requests sent to the MCP server")
+                .register(meterRegistry),
+            FunctionCounter.builder("mcp.retry.denied", retryBudget, RetryBudget::getDeniedRetries)
+                .tag("server", name)
+                .description("Retries and hedged requests skipped because the retry budget was spent")
+                .register(meterRegistry)
+        ));
+        logger.info("Created guards for MCP server {} (maxConcurrentCalls={}, maxQueuedCalls={}, concurrencyLimit={}, circuitBreaker={})",
+                   name, maxConcurrent, maxQueued, concurrencyLimit.getLimit(),
+                   breakerSettings.getEnabled() ? "enabled" : "disabled");
+        return new ServerGuards(bulkhead, concurrencyLimit, circuitBreaker, retryBudget, new ConcurrentHashMap<>());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A ThreadPoolExecutor only adds threads beyond its core size once the queue is full,
+     * so the core size is set to the max to grow to it before queueing; idle threads still
+     * exit after the keep-alive.
+     */
+    private ExecutorService createBoundedExecutor(McpServerProperties.Execution execution) {
+        int maxPoolSize = Math.max(1, execution.getMaxPoolSize());
+        logger.info("Using bounded MCP execution pool (max={}, queue={})",
+                   maxPoolSize, execution.getQueueCapacity());
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            maxPoolSize,
+            maxPoolSize,
+            execution.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, execution.getQueueCapacity())),
+            namedThreadFactory("mcp-exec-"),
+            (task, rejectingExecutor) -> {
+                rejectedTasks.increment();
+                throw new RejectedExecutionException("MCP execution queue is full");
+            });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Virtual threads need JDK 21+, so the factory method is looked up reflectively
+     * and the bounded pool is used when it is not available.
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+            logger.info("Using virtual-thread-per-task MCP execution");
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not available on Java {}, falling back to the bounded pool",
+                       Runtime.version().feature());
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
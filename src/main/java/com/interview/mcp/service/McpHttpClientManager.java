@@ -0,0 +1,227 @@
+package com.interview.mcp.service;
+
+import com.interview.mcp.config.McpServerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import io.netty.resolver.AddressResolverGroup;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Owns the HTTP clients used to reach MCP servers.
+ *
+ * Every HTTP server gets its own WebClient backed by its own Reactor Netty connection
+ * pool, so a chatty server can only exhaust its own connections. Pools are configured
+ * from mcp.servers[].pool, falling back to mcp.http.pool, and export Reactor Netty's
+ * reactor.netty.connection.provider.* meters tagged with the pool name (mcp-<server>).
+ * Those only count waiting requests, so mcp.http.pool.acquire times each request's
+ * wait for a pooled (or new) connection.
+ */
+@Component
+public class McpHttpClientManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpHttpClientManager.class);
+
+    // Named so it cannot be mistaken for a server in pool and timer tags
+    private static final String DEFAULT_CLIENT = "generic-api-calls";
+
+    @Autowired
+    private McpServerProperties mcpServerProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private McpTracing tracing;
+
+    private record PooledClient(WebClient webClient, ConnectionProvider connectionProvider, Timer acquireTimer) {}
+
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+    private PooledClient defaultClient;
+
+    @PostConstruct
+    public void initialize() {
+        defaultClient = create(DEFAULT_CLIENT, mcpServerProperties.getHttp().getPool());
+    }
+
+    /**
+     * Client for calls that do not belong to a configured server, such as generic API calls
+     */
+    public WebClient defaultClient() {
+        return defaultClient.webClient();
+    }
+
+    /**
+     * Get or create the client dedicated to one server
+     */
+    public WebClient client(McpServerProperties.ServerConfig config) {
+        return clients.computeIfAbsent(config.getName(), name -> {
+            McpServerProperties.Pool defaults = mcpServerProperties.getHttp().getPool();
+            McpServerProperties.Pool pool = config.getPool() != null ? config.getPool().withDefaults(defaults) : defaults;
+            return create(name, pool);
+        }).webClient();
+    }
+
+    /**
+     * Close the pooled connections of a server that has been disconnected
+     */
+    public void release(String serverName) {
+        PooledClient client = clients.remove(serverName);
+        if (client != null) {
+            client.connectionProvider().disposeLater().subscribe();
+            meterRegistry.remove(client.acquireTimer());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.keySet().forEach(this::release);
+        if (defaultClient != null) {
+            defaultClient.connectionProvider().dispose();
+        }
+    }
+
+    private PooledClient create(String name, McpServerProperties.Pool pool) {
+        HttpProtocol[] protocols = pool.getProtocols().stream()
+            .map(McpHttpClientManager::toHttpProtocol)
+            .distinct()
+            .toArray(HttpProtocol[]::new);
+        boolean http2 = pool.getProtocols().stream()
+            .anyMatch(version -> version != McpServerProperties.HttpVersion.HTTP11);
+
+        ConnectionProvider.Builder providerBuilder = ConnectionProvider.builder("mcp-" + name)
+            .maxConnections(pool.getMaxConnections())
+            .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+            .maxIdleTime(pool.getMaxIdleTime())
+            .maxLifeTime(pool.getMaxLifeTime())
+            .evictInBackground(pool.getEvictionInterval())
+            .metrics(true);
+        if (http2) {
+            // Streams are multiplexed, so far fewer connections are needed for the same load
+            providerBuilder.allocationStrategy(Http2AllocationStrategy.builder()
+                .maxConnections(pool.getMaxConnections())
+                .maxConcurrentStreams(pool.getMaxConcurrentStreams())
+                .build());
+        }
+        Timer acquireTimer = Timer.builder("mcp.http.pool.acquire")
+            .tag("server", name)
+            .description("Time spent waiting for a connection from the server's pool")
+            .register(meterRegistry);
+        ConnectionProvider connectionProvider = new TimedConnectionProvider(providerBuilder.build(), acquireTimer);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .protocol(protocols)
+            .keepAlive(pool.getKeepAlive())
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+            .responseTimeout(pool.getResponseTimeout());
+
+        int maxInMemorySize = (int) mcpServerProperties.getHttp().getMaxInMemorySize().toBytes();
+        WebClient webClient = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize))
+            // Each request is a span that carries the trace on to the server in its headers
+            .observationRegistry(tracing.registry())
+            .build();
+
+        logger.info("Created HTTP client for {} (maxConnections={}, pendingAcquireMaxCount={}, protocols={})",
+                   name, pool.getMaxConnections(), pool.getPendingAcquireMaxCount(), pool.getProtocols());
+        return new PooledClient(webClient, connectionProvider, acquireTimer);
+    }
+
+    /**
+     * Times each acquire from the pool until the request holds a connection: at once for
+     * an idle one, after connecting for a new one, or after queueing while all are busy.
+     * Over HTTP/2, streams are leased inside Reactor Netty's own HTTP/2 pool, which only
+     * comes back here to open connections, so only those are timed.
+     */
+    private static final class TimedConnectionProvider implements ConnectionProvider {
+        private final ConnectionProvider delegate;
+        private final Timer acquireTimer;
+
+        TimedConnectionProvider(ConnectionProvider delegate, Timer acquireTimer) {
+            this.delegate = delegate;
+            this.acquireTimer = acquireTimer;
+        }
+
+        @Override
+        public Mono<? extends Connection> acquire(TransportConfig config, ConnectionObserver observer,
+                                                  Supplier<? extends SocketAddress> remoteAddress,
+                                                  AddressResolverGroup<?> resolverGroup) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return delegate.acquire(config, observer, remoteAddress, resolverGroup)
+                    .doOnNext(connection -> acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+            });
+        }
+
+        @Override
+        public void disposeWhen(SocketAddress address) {
+            delegate.disposeWhen(address);
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public Mono<Void> disposeLater() {
+            return delegate.disposeLater();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return delegate.isDisposed();
+        }
+
+        @Override
+        public int maxConnections() {
+            return delegate.maxConnections();
+        }
+
+        @Override
+        public Map<SocketAddress, Integer> maxConnectionsPerHost() {
+            return delegate.maxConnectionsPerHost();
+        }
+
+        @Override
+        public Builder mutate() {
+            return delegate.mutate();
+        }
+
+        @Override
+        public String name() {
+            return delegate.name();
+        }
+    }
+
+    private static HttpProtocol toHttpProtocol(McpServerProperties.HttpVersion version) {
+        return switch (version) {
+            case HTTP11 -> HttpProtocol.HTTP11;
+            case H2 -> HttpProtocol.H2;
+            case H2C -> HttpProtocol.H2C;
+        };
+    }
+}
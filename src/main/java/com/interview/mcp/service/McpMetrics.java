@@ -0,0 +1,267 @@
+package com.interview.mcp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters of one MCP server connection: a timer per JSON-RPC method and tool with
+ * percentile histograms, request and response payload sizes, requests in flight,
+ * errors by JSON-RPC error code and catalog sizes, all tagged with the server name.
+ * Meters are registered on first use and removed when the connection closes; anything
+ * recorded after that, such as an exchange still in flight, is dropped rather than
+ * registering its meters again.
+ */
+public class McpMetrics {
+
+    /**
+     * Connections that were not given any metrics record into a registry that keeps nothing
+     */
+    public static final McpMetrics NOOP = new McpMetrics(new CompositeMeterRegistry(), "none");
+
+    /**
+     * WebClient request attribute naming the JSON-RPC method, so response sizes can be tagged with it
+     */
+    public static final String METHOD_ATTRIBUTE = McpMetrics.class.getName() + ".method";
+
+    private static final double MIN_PAYLOAD_BYTES = 64;
+    private static final double MAX_PAYLOAD_BYTES = 64 * 1024 * 1024;
+
+    public enum Outcome {
+        SUCCESS, TOOL_ERROR, RPC_ERROR, TRANSPORT_ERROR, CANCELLED;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private record TimerKey(String method, String tool) {}
+
+    private record ErrorKey(String method, String code) {}
+
+    private final MeterRegistry registry;
+    private final String serverName;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<TimerKey, Timer[]> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> requestSizes = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> responseSizes = new ConcurrentHashMap<>();
+    private final Map<ErrorKey, Counter> errors = new ConcurrentHashMap<>();
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public McpMetrics(MeterRegistry registry, String serverName) {
+        this.registry = registry;
+        this.serverName = serverName;
+        meters.add(Gauge.builder("mcp.requests.in.flight", inFlight, AtomicInteger::get)
+            .tag("server", serverName)
+            .description("JSON-RPC requests sent to the MCP server and not yet answered")
+            .register(registry));
+    }
+
+    /**
+     * Time one JSON-RPC exchange, deriving the outcome from its response
+     *
+     * @param tool The tool for tools/call, "none" otherwise
+     */
+    public <T> Mono<T> timed(String method, String tool, Mono<T> exchange, Function<T, Outcome> outcomeOf) {
+        return Mono.defer(() -> {
+            Sample sample = start(method, tool);
+            return exchange
+                .doOnSuccess(response -> sample.stop(response != null ? outcomeOf.apply(response) : Outcome.TRANSPORT_ERROR))
+                .doOnError(e -> {
+                    recordError(method, "transport");
+                    sample.stop(Outcome.TRANSPORT_ERROR);
+                })
+                .doOnCancel(() -> sample.stop(Outcome.CANCELLED));
+        });
+    }
+
+    /**
+     * Time a streamed exchange from the request until its last element
+     */
+    public <T> Flux<T> timed(String method, String tool, Flux<T> exchange) {
+        return Flux.defer(() -> {
+            Sample sample = start(method, tool);
+            return exchange
+                .doOnComplete(() -> sample.stop(Outcome.SUCCESS))
+                .doOnError(e -> {
+                    recordError(method, "transport");
+                    sample.stop(Outcome.TRANSPORT_ERROR);
+                })
+                .doOnCancel(() -> sample.stop(Outcome.CANCELLED));
+        });
+    }
+
+    /**
+     * Count a JSON-RPC error response, or "transport" for requests that got no response
+     */
+    public void recordError(String method, String code) {
+        if (closed) {
+            return;
+        }
+        errors.computeIfAbsent(new ErrorKey(method, code), key -> register(Counter.builder("mcp.request.errors")
+            .tag("server", serverName)
+            .tag("method", key.method())
+            .tag("code", key.code())
+            .description("Failed JSON-RPC requests by error code")
+            .register(registry)))
+            .increment();
+    }
+
+    public void recordRequestSize(String method, long bytes) {
+        if (closed) {
+            return;
+        }
+        requestSizes.computeIfAbsent(method, key -> payloadSize("mcp.request.size", key,
+            "Size of JSON-RPC requests sent to the MCP server")).record(bytes);
+    }
+
+    public void recordResponseSize(String method, long bytes) {
+        if (closed) {
+            return;
+        }
+        responseSizes.computeIfAbsent(method, key -> payloadSize("mcp.response.size", key,
+            "Size of responses received from the MCP server")).record(bytes);
+    }
+
+    /**
+     * Publish the number of tools or resources a server offers
+     */
+    public <T> void catalogSize(String kind, T source, ToDoubleFunction<T> size) {
+        if (closed) {
+            return;
+        }
+        register(Gauge.builder("mcp.catalog.size", source, size)
+            .tag("server", serverName)
+            .tag("kind", kind)
+            .description("Tools or resources offered by the MCP server")
+            .register(registry));
+    }
+
+    /**
+     * Remove every meter of this connection
+     */
+    public void close() {
+        closed = true;
+        meters.forEach(registry::remove);
+        meters.clear();
+        timers.clear();
+        requestSizes.clear();
+        responseSizes.clear();
+        errors.clear();
+    }
+
+    /**
+     * Filter recording the size of each response to a request carrying METHOD_ATTRIBUTE,
+     * counted as the body streams through. An event stream abandoned once the awaited
+     * response arrived counts what was read up to then.
+     */
+    public static ExchangeFilterFunction responseSizeFilter(Supplier<McpMetrics> metrics) {
+        return (request, next) -> {
+            Optional<Object> method = request.attribute(METHOD_ATTRIBUTE);
+            if (method.isEmpty()) {
+                return next.exchange(request);
+            }
+            return next.exchange(request).map(response -> response.mutate()
+                .body(body -> {
+                    AtomicLong bytes = new AtomicLong();
+                    return body
+                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                        .doFinally(signal -> {
+                            if (signal != SignalType.ON_ERROR) {
+                                metrics.get().recordResponseSize((String) method.get(), bytes.get());
+                            }
+                        });
+                })
+                .build());
+        };
+    }
+
+    private Sample start(String method, String tool) {
+        inFlight.incrementAndGet();
+        return new Sample(method, tool, System.nanoTime());
+    }
+
+    private Timer timer(String method, String tool, Outcome outcome) {
+        Timer[] byOutcome = timers.computeIfAbsent(new TimerKey(method, tool), key -> new Timer[Outcome.values().length]);
+        Timer timer = byOutcome[outcome.ordinal()];
+        if (timer == null) {
+            // Racing threads get the same timer back from the registry
+            timer = register(Timer.builder("mcp.requests")
+                .tag("server", serverName)
+                .tag("method", method)
+                .tag("tool", tool)
+                .tag("outcome", outcome.tag)
+                .description("Round trips of JSON-RPC requests to the MCP server")
+                .publishPercentileHistogram()
+                .register(registry));
+            byOutcome[outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+
+    private DistributionSummary payloadSize(String name, String method, String description) {
+        return register(DistributionSummary.builder(name)
+            .tag("server", serverName)
+            .tag("method", method)
+            .baseUnit("bytes")
+            .description(description)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_PAYLOAD_BYTES)
+            .maximumExpectedValue(MAX_PAYLOAD_BYTES)
+            .register(registry));
+    }
+
+    private <M extends Meter> M register(M meter) {
+        meters.add(meter);
+        if (closed) {
+            // Closed while this meter was being registered
+            registry.remove(meter);
+        }
+        return meter;
+    }
+
+    /**
+     * One exchange in flight, stopped exactly once whichever signal ends it
+     */
+    private final class Sample {
+        private final String method;
+        private final String tool;
+        private final long start;
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        Sample(String method, String tool, long start) {
+            this.method = method;
+            this.tool = tool;
+            this.start = start;
+        }
+
+        void stop(Outcome outcome) {
+            if (stopped.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                if (!closed) {
+                    timer(method, tool, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.interview.mcp.service;
 
 import com.interview.mcp.schema.McpSchema;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Interface for MCP server connections
@@ -12,13 +18,35 @@ public interface McpServerConnection {
     /**
      * Initialize the connection
      */
-    void initialize() throws Exception;
+    default void initialize() throws Exception {
+        initializeAsync().block();
+    }
+
+    /**
+     * Initialize the connection without blocking the calling thread
+     */
+    Mono<Void> initializeAsync();
 
     /**
      * Check if connection is active
      */
     boolean isConnected();
 
+    /**
+     * Check that the server still answers, with an MCP ping. A connection whose ping
+     * fails or times out is marked disconnected.
+     *
+     * @return The round-trip time of the ping
+     */
+    Mono<Duration> pingAsync(Duration timeout);
+
+    /**
+     * Re-run the handshake with a server that stopped answering, reloading its tools and resources
+     */
+    default Mono<Void> reconnectAsync() {
+        return initializeAsync();
+    }
+
     /**
      * Get server URL
      */
@@ -34,20 +62,90 @@ public interface McpServerConnection {
      */
     List<String> getAvailableTools();
 
+    /**
+     * Register a callback run whenever the tool list has been (re)loaded from the server
+     */
+    void setToolsChangedListener(Runnable listener);
+
+    /**
+     * Record round trips, payload sizes and catalog sizes into these meters, removed again on close
+     */
+    void setMetrics(McpMetrics metrics);
+
+    /**
+     * Observe each request as a span and pass its trace context on to the server
+     */
+    void setTracing(McpTracing tracing);
+
+    /**
+     * Fetch again the tool and resource lists the server reported as changed, or both
+     * when forced. Unchanged lists are kept as they are.
+     */
+    Mono<Void> refreshCatalogAsync(boolean force);
+
+    /**
+     * Progress reported by the server for running tool calls. Only calls made with a
+     * progress token ask for progress, and notifications carry that token back.
+     */
+    Flux<McpSchema.ProgressNotification> progressNotifications();
+
     /**
      * Call a specific tool
      */
-    McpSchema.CallToolResult callTool(String toolName, Map<String, Object> parameters) throws Exception;
+    default McpSchema.CallToolResult callTool(String toolName, Map<String, Object> parameters) throws Exception {
+        return callToolAsync(toolName, parameters).block();
+    }
+
+    /**
+     * Call a specific tool without blocking the calling thread. A tool reporting an
+     * error is a normal result; transport failures are signalled as errors.
+     */
+    Mono<McpSchema.CallToolResult> callToolAsync(String toolName, Map<String, Object> parameters);
+
+    /**
+     * Call a tool, tagging its progress notifications with the given token instead of the request id
+     */
+    Mono<McpSchema.CallToolResult> callToolAsync(String toolName, Map<String, Object> parameters, Object progressToken);
+
+    /**
+     * Call a tool and hand on its result as the JSON the server sent, for callers that
+     * forward it without looking inside
+     */
+    Mono<McpSchema.RawCallToolResult> callToolRawAsync(String toolName, Map<String, Object> parameters);
+
+    /**
+     * Call several tools in one round trip, returning results in input order
+     */
+    Mono<List<McpSchema.CallToolResult>> callToolsAsync(List<McpSchema.ToolCall> calls);
 
     /**
      * List available resources
      */
     List<McpSchema.Resource> listResources() throws Exception;
 
+    /**
+     * Look up one resource by URI
+     */
+    Optional<McpSchema.Resource> findResource(String uri);
+
     /**
      * Read a specific resource
      */
-    McpSchema.ReadResourceResult readResource(String uri) throws Exception;
+    default McpSchema.ReadResourceResult readResource(String uri) throws Exception {
+        return readResourceAsync(uri).block();
+    }
+
+    /**
+     * Read a specific resource without blocking the calling thread
+     */
+    Mono<McpSchema.ReadResourceResult> readResourceAsync(String uri);
+
+    /**
+     * Stream the raw bytes of a resource's first content entry: text as UTF-8,
+     * blobs base64-decoded. Chunks may be emitted on a Netty event loop, so a
+     * subscriber that blocks must move them to a scheduler of its own first.
+     */
+    Flux<DataBuffer> readResourceContent(String uri);
 
     /**
      * Close the connection
@@ -0,0 +1,125 @@
+package com.interview.mcp.service;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Observations around MCP calls, exported as spans when a tracer is configured. The
+ * current observation travels in the Reactor context rather than in a thread local,
+ * since calls hop between the servlet thread, the MCP scheduler and the Netty event
+ * loop. WebClients built on the same registry continue the trace in HTTP headers;
+ * trace context also goes to the server in the JSON-RPC _meta of each request, which
+ * is the only carrier the stdio transport has.
+ */
+@Component
+public class McpTracing {
+
+    /**
+     * Connections that were not given any tracing observe nothing
+     */
+    public static final McpTracing NOOP = new McpTracing(ObservationRegistry.NOOP, Propagator.NOOP);
+
+    private final ObservationRegistry registry;
+    private final Propagator propagator;
+
+    public McpTracing(ObservationRegistry registry, Propagator propagator) {
+        this.registry = registry;
+        this.propagator = propagator;
+    }
+
+    /**
+     * Spring uses this constructor; without tracing on the classpath, or with tracing
+     * disabled, observations still feed metrics but carry no trace context
+     */
+    @Autowired
+    public McpTracing(ObjectProvider<ObservationRegistry> registry, ObjectProvider<Propagator> propagator) {
+        this(registry.getIfAvailable(() -> ObservationRegistry.NOOP), propagator.getIfAvailable(() -> Propagator.NOOP));
+    }
+
+    public ObservationRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Run a call inside a new observation, a child of the one in the subscriber's context
+     *
+     * @param contextualName Span name, or null to use the observation name
+     * @param lowCardinality Tags also used for the observation's timer, so only bounded values
+     * @param highCardinality Span attributes only
+     */
+    public <T> Mono<T> observe(String name, String contextualName, KeyValues lowCardinality,
+                               KeyValues highCardinality, Function<Observation, Mono<T>> call) {
+        return Mono.deferContextual(context -> {
+            Observation observation = start(name, contextualName, lowCardinality, highCardinality, context);
+            return call.apply(observation)
+                .doOnError(observation::error)
+                .doFinally(signal -> observation.stop())
+                .contextWrite(inner -> inner.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Like {@link #observe}, for a call whose result is streamed
+     */
+    public <T> Flux<T> observeMany(String name, String contextualName, KeyValues lowCardinality,
+                                   KeyValues highCardinality, Function<Observation, Flux<T>> call) {
+        return Flux.deferContextual(context -> {
+            Observation observation = start(name, contextualName, lowCardinality, highCardinality, context);
+            return call.apply(observation)
+                .doOnError(observation::error)
+                .doFinally(signal -> observation.stop())
+                .contextWrite(inner -> inner.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Make the observation current on this thread, e.g. the HTTP server request a
+     * controller method runs in, the parent of everything the returned Mono does
+     */
+    public Context withCurrentObservation(Context context) {
+        Observation current = registry.getCurrentObservation();
+        return current != null ? context.put(ObservationThreadLocalAccessor.KEY, current) : context;
+    }
+
+    /**
+     * Trace context fields of the observation's span, W3C traceparent and tracestate
+     * unless configured otherwise; empty when the span is not sampled
+     */
+    public Map<String, String> propagationFields(Observation observation) {
+        TracingObservationHandler.TracingContext tracingContext =
+            observation.getContextView().get(TracingObservationHandler.TracingContext.class);
+        Span span = tracingContext != null ? tracingContext.getSpan() : null;
+        if (span == null || span.isNoop()) {
+            return Map.of();
+        }
+        Map<String, String> fields = new HashMap<>(2);
+        propagator.inject(span.context(), fields, Map::put);
+        return fields;
+    }
+
+    private Observation start(String name, String contextualName, KeyValues lowCardinality,
+                              KeyValues highCardinality, ContextView context) {
+        return Observation.createNotStarted(name, registry)
+            .contextualName(contextualName)
+            .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+            .lowCardinalityKeyValues(lowCardinality)
+            .highCardinalityKeyValues(highCardinality)
+            .start();
+    }
+}
@@ -0,0 +1,93 @@
+package com.interview.mcp.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Finds the result of a tools/call response without decoding it. The message is
+ * tokenized once: the result's strings are skipped rather than read, and apart from
+ * its top-level isError flag nothing of it is materialized. The buffer holding the
+ * message is then narrowed to the bytes of the result, so they can be forwarded as
+ * they arrived. An error response is decoded as usual, being small.
+ */
+public class RawToolResultReader {
+
+    private final ObjectMapper objectMapper;
+
+    public RawToolResultReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read one JSON-RPC response. Ownership of the message passes to the returned
+     * result; the message is released when there is no result to hand on or it cannot
+     * be read.
+     */
+    public McpSchema.JsonRpcResponse<McpSchema.RawCallToolResult> read(DataBuffer message) {
+        int base = message.readPosition();
+        try (InputStream in = message.asInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Response is not a JSON object");
+            }
+
+            Object id = null;
+            McpSchema.JsonRpcError error = null;
+            long start = -1;
+            long end = -1;
+            boolean isError = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(field) && value.isScalarValue()) {
+                    id = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : parser.getText();
+                } else if ("error".equals(field) && value == JsonToken.START_OBJECT) {
+                    error = parser.readValueAs(McpSchema.JsonRpcError.class);
+                } else if ("result".equals(field) && value == JsonToken.START_OBJECT) {
+                    start = parser.currentTokenLocation().getByteOffset();
+                    isError = scanResult(parser);
+                    end = parser.currentLocation().getByteOffset();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (start < 0) {
+                DataBufferUtils.release(message);
+                return new McpSchema.JsonRpcResponse<>("2.0", id, null, error);
+            }
+            message.readPosition(base + (int) start);
+            message.writePosition(base + (int) end);
+            return new McpSchema.JsonRpcResponse<>("2.0", id, new McpSchema.RawCallToolResult(message, isError), null);
+        } catch (IOException | RuntimeException e) {
+            DataBufferUtils.release(message);
+            throw new IllegalStateException("Malformed tools/call response", e);
+        }
+    }
+
+    /**
+     * Skip over the result object, leaving the parser on its closing brace
+     *
+     * @return The value of its isError flag
+     */
+    private static boolean scanResult(JsonParser parser) throws IOException {
+        boolean isError = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("isError".equals(field)) {
+                isError = value == JsonToken.VALUE_TRUE;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return isError;
+    }
+}
@@ -0,0 +1,337 @@
+package com.interview.mcp.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Incrementally extracts the payload of the first content entry of a resources/read
+ * response while the response is still arriving.
+ *
+ * The JSON is scanned byte by byte, so a multi-megabyte text or base64 blob is never
+ * held as one value: each network chunk yields at most one chunk of output. Text is
+ * unescaped to UTF-8 and blobs are base64-decoded to raw bytes. A JSON-RPC error
+ * response becomes an error signal once the stream ends.
+ *
+ * Instances are stateful and serve exactly one response.
+ */
+public class ResourceContentStreamDecoder {
+
+    private static final byte[] BASE64_VALUES = new byte[256];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+        // Accept the URL-safe alphabet as well
+        BASE64_VALUES['-'] = 62;
+        BASE64_VALUES['_'] = 63;
+    }
+
+    private enum Target { SKIP, KEY, TEXT, BLOB, ERROR_MESSAGE }
+
+    /**
+     * One open JSON object or array
+     */
+    private static final class Frame {
+        final boolean object;
+        String key;
+        boolean expectingKey;
+        int index;
+
+        Frame(boolean object) {
+            this.object = object;
+            this.expectingKey = object;
+        }
+    }
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final ByteArrayOutputStream smallString = new ByteArrayOutputStream();
+
+    private boolean inString;
+    private Target target = Target.SKIP;
+    private boolean escape;
+    private int unicodeDigits = -1;
+    private int unicodeValue;
+    private int highSurrogate = -1;
+
+    private final int[] quad = new int[4];
+    private int quadLength;
+    private boolean base64Padding;
+
+    private String errorMessage;
+    private boolean errorSeen;
+
+    private byte[] out;
+    private int outLength;
+
+    /**
+     * Decode a whole response body, releasing every upstream buffer
+     */
+    public static Flux<DataBuffer> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            ResourceContentStreamDecoder decoder = new ResourceContentStreamDecoder();
+            return body
+                .<DataBuffer>handle((buffer, sink) -> {
+                    try {
+                        DataBuffer decoded = decoder.decodeChunk(buffer);
+                        if (decoded != null) {
+                            sink.next(decoded);
+                        }
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .concatWith(Mono.defer(decoder::finish));
+        });
+    }
+
+    /**
+     * Scan one chunk of the response, returning the payload bytes it completed, if any
+     */
+    public DataBuffer decodeChunk(DataBuffer chunk) {
+        // Output never exceeds the input by more than one carried-over base64 group
+        out = new byte[chunk.readableByteCount() + 4];
+        outLength = 0;
+
+        try (DataBuffer.ByteBufferIterator iterator = chunk.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer bytes = iterator.next();
+                while (bytes.hasRemaining()) {
+                    accept(bytes.get());
+                }
+            }
+        }
+
+        return outLength > 0
+            ? DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(out, 0, outLength))
+            : null;
+    }
+
+    /**
+     * Signal the end of the response
+     */
+    public Mono<DataBuffer> finish() {
+        if (errorSeen) {
+            return Mono.error(new Exception("Error reading resource: "
+                + (errorMessage != null ? errorMessage : "unknown error")));
+        }
+        return Mono.empty();
+    }
+
+    private void accept(byte b) {
+        if (inString) {
+            acceptStringByte(b);
+            return;
+        }
+
+        Frame top = frames.peek();
+        switch (b) {
+            case '{' -> frames.push(new Frame(true));
+            case '[' -> frames.push(new Frame(false));
+            case '}', ']' -> frames.poll();
+            case ':' -> {
+                if (top != null && top.object) {
+                    top.expectingKey = false;
+                }
+            }
+            case ',' -> {
+                if (top != null && top.object) {
+                    top.expectingKey = true;
+                    top.key = null;
+                } else if (top != null) {
+                    top.index++;
+                }
+            }
+            case '"' -> startString(top);
+            default -> {
+                // Whitespace and scalar literals carry nothing we need
+            }
+        }
+    }
+
+    private void startString(Frame top) {
+        inString = true;
+        if (top != null && top.object && top.expectingKey) {
+            target = Target.KEY;
+        } else {
+            target = valueTarget();
+        }
+        smallString.reset();
+        if (target == Target.ERROR_MESSAGE) {
+            errorSeen = true;
+        }
+    }
+
+    /**
+     * Decide what to do with a string value from the path of keys leading to it
+     */
+    private Target valueTarget() {
+        Frame[] path = frames.toArray(new Frame[0]);
+        int depth = path.length;
+        // path[0] is the innermost frame, path[depth - 1] the root object
+
+        if (depth == 4
+                && "result".equals(path[3].key)
+                && "contents".equals(path[2].key)
+                && !path[1].object && path[1].index == 0) {
+            if ("blob".equals(path[0].key)) {
+                return Target.BLOB;
+            } else if ("text".equals(path[0].key)) {
+                return Target.TEXT;
+            }
+        } else if (depth == 2 && "error".equals(path[1].key) && "message".equals(path[0].key)) {
+            return Target.ERROR_MESSAGE;
+        }
+        return Target.SKIP;
+    }
+
+    private void acceptStringByte(byte b) {
+        if (unicodeDigits >= 0) {
+            acceptUnicodeDigit(b);
+        } else if (escape) {
+            escape = false;
+            switch (b) {
+                case 'u' -> {
+                    unicodeDigits = 0;
+                    unicodeValue = 0;
+                }
+                case 'b' -> emit((byte) '\b');
+                case 'f' -> emit((byte) '\f');
+                case 'n' -> emit((byte) '\n');
+                case 'r' -> emit((byte) '\r');
+                case 't' -> emit((byte) '\t');
+                default -> emit(b); // quote, backslash and slash stand for themselves
+            }
+        } else if (b == '\\') {
+            escape = true;
+        } else if (b == '"') {
+            endString();
+        } else {
+            emit(b);
+        }
+    }
+
+    private void acceptUnicodeDigit(byte b) {
+        int digit = Character.digit(b, 16);
+        unicodeValue = (unicodeValue << 4) | Math.max(digit, 0);
+        if (++unicodeDigits < 4) {
+            return;
+        }
+        unicodeDigits = -1;
+
+        int codeUnit = unicodeValue;
+        if (Character.isHighSurrogate((char) codeUnit)) {
+            highSurrogate = codeUnit;
+            return;
+        }
+        int codePoint = codeUnit;
+        if (highSurrogate >= 0 && Character.isLowSurrogate((char) codeUnit)) {
+            codePoint = Character.toCodePoint((char) highSurrogate, (char) codeUnit);
+        }
+        highSurrogate = -1;
+        emitCodePoint(codePoint);
+    }
+
+    private void emitCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            emit((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            emit((byte) (0xC0 | (codePoint >> 6)));
+            emit((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            emit((byte) (0xE0 | (codePoint >> 12)));
+            emit((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            emit((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            emit((byte) (0xF0 | (codePoint >> 18)));
+            emit((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            emit((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            emit((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+
+    /**
+     * Route one unescaped string byte to the current target
+     */
+    private void emit(byte b) {
+        switch (target) {
+            case KEY, ERROR_MESSAGE -> smallString.write(b);
+            case TEXT -> write(b);
+            case BLOB -> acceptBase64(b);
+            case SKIP -> {
+                // Not part of the payload
+            }
+        }
+    }
+
+    private void acceptBase64(byte b) {
+        if (b == '=') {
+            base64Padding = true;
+            return;
+        }
+        int value = BASE64_VALUES[b & 0xFF];
+        if (value < 0 || base64Padding) {
+            // Line breaks and other whitespace in MIME-style base64
+            return;
+        }
+        quad[quadLength++] = value;
+        if (quadLength == 4) {
+            write((byte) ((quad[0] << 2) | (quad[1] >> 4)));
+            write((byte) ((quad[1] << 4) | (quad[2] >> 2)));
+            write((byte) ((quad[2] << 6) | quad[3]));
+            quadLength = 0;
+        }
+    }
+
+    /**
+     * Flush a trailing base64 group that was shortened by padding
+     */
+    private void finishBase64() {
+        if (quadLength >= 2) {
+            write((byte) ((quad[0] << 2) | (quad[1] >> 4)));
+        }
+        if (quadLength == 3) {
+            write((byte) ((quad[1] << 4) | (quad[2] >> 2)));
+        }
+        quadLength = 0;
+        base64Padding = false;
+    }
+
+    private void endString() {
+        inString = false;
+        switch (target) {
+            case KEY -> {
+                Frame top = frames.peek();
+                if (top != null) {
+                    top.key = smallString.toString(StandardCharsets.UTF_8);
+                }
+            }
+            case ERROR_MESSAGE -> errorMessage = smallString.toString(StandardCharsets.UTF_8);
+            case BLOB -> finishBase64();
+            default -> {
+                // Nothing to finish
+            }
+        }
+        target = Target.SKIP;
+        highSurrogate = -1;
+    }
+
+    private void write(byte b) {
+        if (outLength == out.length) {
+            out = Arrays.copyOf(out, out.length * 2);
+        }
+        out[outLength++] = b;
+    }
+}
@@ -0,0 +1,55 @@
+package com.interview.mcp.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting the retries and hedged requests sent to one MCP server.
+ *
+ * Every failed attempt takes a token and every successful one returns tokenRatio of a
+ * token. Extra attempts are only allowed while more than half of the bucket is left, so
+ * when a server fails most calls, retries stop instead of multiplying its load.
+ */
+public class RetryBudget {
+
+    private final double maxTokens;
+    private final double tokenRatio;
+    private double tokens;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong deniedRetries = new AtomicLong();
+
+    public RetryBudget(int maxTokens, double tokenRatio) {
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("maxTokens must be at least 1");
+        }
+        this.maxTokens = maxTokens;
+        this.tokenRatio = tokenRatio;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onSuccess() {
+        tokens = Math.min(maxTokens, tokens + tokenRatio);
+    }
+
+    public synchronized void onFailure() {
+        tokens = Math.max(0, tokens - 1);
+    }
+
+    /**
+     * Whether one more attempt may be sent; counted as a retry when it may
+     */
+    public boolean tryAcquire() {
+        boolean allowed;
+        synchronized (this) {
+            allowed = tokens > maxTokens / 2;
+        }
+        (allowed ? retries : deniedRetries).incrementAndGet();
+        return allowed;
+    }
+
+    public synchronized double getTokens() { return tokens; }
+
+    public long getRetries() { return retries.get(); }
+
+    public long getDeniedRetries() { return deniedRetries.get(); }
+}
@@ -0,0 +1,110 @@
+package com.interview.mcp.service;
+
+import com.interview.mcp.config.McpServerProperties;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Liveness of one MCP server as seen by the background health checks: how long it
+ * has been answering, how fast it answered the last ping, and when to try again
+ * after it stopped. Reconnect attempts back off exponentially, and at most one
+ * check of a server is in flight at a time.
+ */
+public class ServerHealth {
+
+    private final McpServerProperties.HealthCheckSettings settings;
+    private final Timer pingLatency;
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    private volatile long upSinceNanos;
+    private volatile boolean up;
+    private volatile long lastLatencyNanos = -1;
+    private volatile int consecutiveFailures;
+    private volatile long nextCheckNanos;
+
+    public ServerHealth(McpServerProperties.HealthCheckSettings settings, Timer pingLatency) {
+        this.settings = settings;
+        this.pingLatency = pingLatency;
+    }
+
+    /**
+     * Claim the next check, unless one is still running or the server is backing off
+     */
+    public boolean tryStartCheck() {
+        if (System.nanoTime() - nextCheckNanos < 0) {
+            return false;
+        }
+        return checking.compareAndSet(false, true);
+    }
+
+    public void endCheck() {
+        checking.set(false);
+    }
+
+    /**
+     * The server answered a ping
+     */
+    public void recordPing(Duration latency) {
+        lastLatencyNanos = latency.toNanos();
+        pingLatency.record(latency);
+        recordUp();
+    }
+
+    /**
+     * The server is answering again, or for the first time
+     */
+    public void recordUp() {
+        if (!up) {
+            upSinceNanos = System.nanoTime();
+            up = true;
+        }
+        consecutiveFailures = 0;
+        nextCheckNanos = System.nanoTime();
+    }
+
+    /**
+     * The server stopped answering and is about to be reconnected at once, without
+     * backing off; its uptime starts over when it comes back
+     */
+    public void markDown() {
+        up = false;
+    }
+
+    /**
+     * A ping or reconnect failed; the next attempt waits out the backoff
+     */
+    public void recordFailure() {
+        up = false;
+        int failures = ++consecutiveFailures;
+        long backoff = Math.min(
+            settings.getInitialBackoff().toNanos() << Math.min(failures - 1, 20),
+            settings.getMaxBackoff().toNanos());
+        nextCheckNanos = System.nanoTime() + backoff;
+    }
+
+    public boolean isUp() {
+        return up;
+    }
+
+    /**
+     * Seconds since the server last came up, 0 while it is down
+     */
+    public long getUptimeSeconds() {
+        return up ? TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - upSinceNanos) : 0;
+    }
+
+    /**
+     * Round-trip time of the last successful ping, null before the first one
+     */
+    public Long getLastPingMillis() {
+        long latency = lastLatencyNanos;
+        return latency >= 0 ? TimeUnit.NANOSECONDS.toMillis(latency) : null;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
@@ -0,0 +1,66 @@
+package com.interview.mcp.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls into one.
+ *
+ * While a call for a key is in flight, later callers with the same key subscribe to
+ * that call instead of starting their own. Nothing is kept once the call completes,
+ * so the next caller always starts a fresh call. The shared call is cancelled only
+ * when every caller waiting on it has cancelled.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder deduplicatedCalls = new LongAdder();
+
+    /**
+     * Run the call for a key, or join the identical call already in flight
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            calls.increment();
+            boolean[] started = new boolean[1];
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return share(k, call);
+            });
+            if (!started[0]) {
+                deduplicatedCalls.increment();
+            }
+            return shared;
+        });
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> shared = new AtomicReference<>();
+        // singleOrEmpty waits for completion, so a caller never cancels a call that just emitted
+        shared.set(Mono.defer(call)
+            .doFinally(signal -> inFlight.remove(key, shared.get()))
+            .flux()
+            .publish()
+            .refCount(1)
+            .singleOrEmpty());
+        return shared.get();
+    }
+
+    public int getInFlightCalls() {
+        return inFlight.size();
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getDeduplicatedCalls() {
+        return deduplicatedCalls.sum();
+    }
+}
@@ -0,0 +1,544 @@
+package com.interview.mcp.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STDIO transport for MCP servers running as local subprocesses.
+ *
+ * Messages are newline-delimited JSON-RPC. Requests are pipelined: any number may be
+ * in flight and responses are matched back by their numeric id. A crashed process
+ * is restarted with exponential backoff once the connection has been established.
+ */
+public class StdioMcpServerConnection extends AbstractMcpServerConnection {
+
+    private static final Logger logger = LoggerFactory.getLogger(StdioMcpServerConnection.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final Duration INITIAL_RESTART_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RESTART_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration SHUTDOWN_GRACE_PERIOD = Duration.ofSeconds(2);
+
+    private final String serverUrl;
+    private final List<String> command;
+
+    private final AtomicInteger restartAttempts = new AtomicInteger();
+    private final AtomicBoolean restartScheduled = new AtomicBoolean();
+
+    private volatile StdioSession session;
+    private volatile boolean started = false;
+    private volatile boolean closed = false;
+
+    public StdioMcpServerConnection(String serverName, String serverUrl, String command, List<String> args,
+                                    ObjectMapper objectMapper, Scheduler scheduler) {
+        super(serverName, objectMapper, scheduler);
+        if (command == null || command.isBlank()) {
+            throw new IllegalArgumentException("STDIO transport requires a command for MCP server: " + serverName);
+        }
+        this.serverUrl = serverUrl != null ? serverUrl : "stdio:" + command;
+        this.command = new ArrayList<>();
+        this.command.add(command);
+        if (args != null) {
+            this.command.addAll(args);
+        }
+    }
+
+    @Override
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    @Override
+    public Mono<Void> initializeAsync() {
+        return Mono.fromCallable(this::startSession)
+            .subscribeOn(scheduler)
+            .then(super.initializeAsync())
+            .doOnSuccess(ignored -> {
+                started = true;
+                restartAttempts.set(0);
+            })
+            .doOnError(e -> {
+                // Without a working first handshake there is nothing to supervise
+                if (!started) {
+                    stopSession();
+                }
+            });
+    }
+
+    /**
+     * Restart a process that stopped answering, unless a restart after a crash is already scheduled
+     */
+    @Override
+    public Mono<Void> reconnectAsync() {
+        return Mono.defer(() -> {
+            if (restartScheduled.get()) {
+                return Mono.empty();
+            }
+            stopSession();
+            return initializeAsync();
+        });
+    }
+
+    @Override
+    protected Mono<Void> onInitialized() {
+        return notifyServer("notifications/initialized", null);
+    }
+
+    @Override
+    protected Mono<Void> sendNotification(Map<String, Object> notification) {
+        return Mono.fromRunnable(() -> currentSession().send(notification));
+    }
+
+    @Override
+    protected <T> Mono<McpSchema.JsonRpcResponse<T>> exchange(
+            McpSchema.JsonRpcRequest request, ParameterizedTypeReference<McpSchema.JsonRpcResponse<T>> responseType) {
+        JavaType javaType = objectMapper.getTypeFactory().constructType(responseType.getType());
+        return send(request, (buffer, offset, length) -> objectMapper.readValue(buffer, offset, length, javaType));
+    }
+
+    /**
+     * The line is copied out of the read buffer, which is reused for the next messages
+     */
+    @Override
+    protected Mono<DataBuffer> exchangeRaw(McpSchema.JsonRpcRequest request) {
+        return this.<DataBuffer>send(request, (buffer, offset, length) ->
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(buffer, offset, offset + length)))
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * Queue a request for the writer and complete once the reader has decoded its response
+     */
+    private <T> Mono<T> send(McpSchema.JsonRpcRequest request, ResponseDecoder decoder) {
+        return Mono.<T>create(sink -> {
+            StdioSession current = session;
+            if (current == null || !current.isAlive()) {
+                sink.error(new IOException("MCP server process is not running: " + serverName));
+                return;
+            }
+
+            long id = request.id();
+            current.pendingRequests.put(id, new PendingRequest(sink, decoder, request.method()));
+            sink.onDispose(() -> current.pendingRequests.remove(id));
+            current.send(request);
+
+            // The process may have exited after the liveness check above
+            if (!current.isAlive() && current.pendingRequests.remove(id) != null) {
+                sink.error(new IOException("MCP server process is not running: " + serverName));
+            }
+        })
+        .publishOn(scheduler);
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        super.close();
+        stopSession();
+    }
+
+    private StdioSession currentSession() {
+        StdioSession current = session;
+        if (current == null) {
+            throw new IllegalStateException("MCP server process is not running: " + serverName);
+        }
+        return current;
+    }
+
+    private StdioSession startSession() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Connection to MCP server is closed: " + serverName);
+        }
+        logger.info("Starting MCP server process for {}: {}", serverName, command);
+
+        Process process = new ProcessBuilder(command).start();
+        StdioSession created = new StdioSession(process);
+        session = created;
+        created.start();
+        return created;
+    }
+
+    private void stopSession() {
+        StdioSession current = session;
+        session = null;
+        if (current != null) {
+            current.stop();
+        }
+    }
+
+    /**
+     * Called by the reader thread once the process output has ended, and by the writer
+     * thread once the process input can no longer be written
+     */
+    private void onSessionEnded(StdioSession ended, IOException cause) {
+        ended.failPending(cause);
+
+        if (closed || !started || ended != session) {
+            return;
+        }
+        markDisconnected();
+        scheduleRestart();
+    }
+
+    private void scheduleRestart() {
+        if (closed || !restartScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        int attempt = restartAttempts.incrementAndGet();
+        long delayMillis = Math.min(
+            INITIAL_RESTART_BACKOFF.toMillis() << Math.min(attempt - 1, 10),
+            MAX_RESTART_BACKOFF.toMillis());
+        logger.warn("MCP server process {} is down, restarting in {} ms (attempt {})", serverName, delayMillis, attempt);
+
+        // The flag stays set until the handshake is over, so a health check cannot stop the new process mid-start
+        Mono.delay(Duration.ofMillis(delayMillis))
+            .then(Mono.defer(() -> {
+                stopSession();
+                return initializeAsync();
+            }))
+            .subscribe(
+                ignored -> {},
+                e -> {
+                    logger.error("Failed to restart MCP server process: {}", serverName, e);
+                    restartScheduled.set(false);
+                    scheduleRestart();
+                },
+                () -> {
+                    logger.info("Restarted MCP server process: {}", serverName);
+                    restartScheduled.set(false);
+                    // A crash right after the handshake found the flag still set
+                    StdioSession current = session;
+                    if (current == null || !current.isAlive()) {
+                        markDisconnected();
+                        scheduleRestart();
+                    }
+                });
+    }
+
+    /**
+     * Route one newline-delimited message read from the process. Responses are
+     * decoded straight from the read buffer into the type their request expects.
+     * A message that cannot be handled fails at most its own request, and the
+     * reader moves on to the next line.
+     */
+    private void handleMessage(StdioSession source, byte[] buffer, int offset, int length) {
+        // Tolerate CRLF line endings and blank lines
+        while (length > 0 && (buffer[offset + length - 1] == '\r' || buffer[offset + length - 1] == ' ')) {
+            length--;
+        }
+        if (length == 0) {
+            return;
+        }
+
+        try {
+            MessageHeader header = scanHeader(buffer, offset, length);
+            if (header == null) {
+                logger.warn("Ignoring non-object message from MCP server {}", serverName);
+                return;
+            }
+
+            if (header.hasMethod()) {
+                JsonNode message = objectMapper.readTree(buffer, offset, length);
+                if (message.hasNonNull("id")) {
+                    source.send(handleServerRequest(message.get("method").asText(), message.get("id")));
+                } else {
+                    handleNotification(message.get("method").asText(), message.get("params"));
+                }
+            } else if (header.id() != null) {
+                PendingRequest pending = source.pendingRequests.remove(header.id());
+                if (pending != null) {
+                    metrics().recordResponseSize(pending.method(), length);
+                    try {
+                        pending.complete(pending.decoder().decode(buffer, offset, length));
+                    } catch (IOException | RuntimeException e) {
+                        pending.sink().error(e);
+                    }
+                } else {
+                    logger.debug("Dropping response {} from MCP server {} with no pending request", header.id(), serverName);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring malformed message from MCP server {}: {}", serverName, e.getMessage());
+        }
+    }
+
+    /**
+     * Read only the top-level id and method of a message, skipping over everything else
+     */
+    private MessageHeader scanHeader(byte[] buffer, int offset, int length) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(buffer, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            Long id = null;
+            boolean hasMethod = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    id = parser.getLongValue();
+                } else if ("method".equals(field)) {
+                    hasMethod = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new MessageHeader(id, hasMethod);
+        }
+    }
+
+    /**
+     * One running server process with its reader, writer and stderr threads
+     */
+    private final class StdioSession {
+        private final Process process;
+        private final Map<Long, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+        private final BlockingQueue<Object> outbound = new LinkedBlockingQueue<>();
+        private final Thread reader;
+        private final Thread writer;
+        private final Thread stderr;
+        private volatile boolean stopping = false;
+        private volatile boolean broken = false;
+
+        StdioSession(Process process) {
+            this.process = process;
+            String prefix = "mcp-stdio-" + serverName + "-";
+            this.reader = daemon(prefix + "reader", this::readLoop);
+            this.writer = daemon(prefix + "writer", this::writeLoop);
+            this.stderr = daemon(prefix + "stderr", this::stderrLoop);
+        }
+
+        void start() {
+            reader.start();
+            writer.start();
+            stderr.start();
+        }
+
+        boolean isAlive() {
+            return !stopping && !broken && process.isAlive();
+        }
+
+        void send(Object message) {
+            outbound.add(message);
+        }
+
+        /**
+         * Drain the outbound queue, flushing only when it runs empty so bursts of
+         * requests go out in as few writes as possible. Each message is encoded on its
+         * own first, so one that cannot be serialized fails only its own request and
+         * never leaves half a line on the stream. A stream that can no longer be written
+         * ends the session like an exited process.
+         */
+        private void writeLoop() {
+            // Reused for every message, so its array grows only to the largest one
+            ByteArrayOutputStream message = new ByteArrayOutputStream(1024);
+            try (OutputStream out = new BufferedOutputStream(process.getOutputStream(), READ_BUFFER_SIZE)) {
+                while (!stopping) {
+                    Object next = outbound.take();
+                    do {
+                        if (encode(next, message)) {
+                            message.writeTo(out);
+                            metrics().recordRequestSize(methodOf(next), message.size());
+                        }
+                    } while ((next = outbound.poll()) != null);
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                if (!stopping) {
+                    logger.error("Failed to write to MCP server process: {}", serverName, e);
+                    broken = true;
+                    onSessionEnded(this, e);
+                }
+            }
+        }
+
+        /**
+         * Encode one message as a line into the buffer
+         *
+         * @return false if it cannot be serialized, after failing its request
+         */
+        private boolean encode(Object message, ByteArrayOutputStream buffer) {
+            buffer.reset();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+                encoder().write(message, generator);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to serialize {} for MCP server {}: {}", methodOf(message), serverName, e.getMessage());
+                if (message instanceof McpSchema.JsonRpcRequest request) {
+                    PendingRequest pending = pendingRequests.remove(request.id());
+                    if (pending != null) {
+                        pending.sink().error(new IllegalArgumentException("JSON-RPC message cannot be serialized", e));
+                    }
+                }
+                return false;
+            }
+            buffer.write('\n');
+            return true;
+        }
+
+        /**
+         * Split stdout on newlines in place, parsing each message straight from the buffer
+         */
+        private void readLoop() {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int start = 0;
+            int end = 0;
+
+            try (InputStream in = process.getInputStream()) {
+                while (true) {
+                    if (end == buffer.length) {
+                        if (start > 0) {
+                            System.arraycopy(buffer, start, buffer, 0, end - start);
+                            end -= start;
+                            start = 0;
+                        } else {
+                            byte[] larger = new byte[buffer.length * 2];
+                            System.arraycopy(buffer, 0, larger, 0, end);
+                            buffer = larger;
+                        }
+                    }
+
+                    int read = in.read(buffer, end, buffer.length - end);
+                    if (read < 0) {
+                        break;
+                    }
+
+                    int scanFrom = end;
+                    end += read;
+                    for (int i = scanFrom; i < end; i++) {
+                        if (buffer[i] == '\n') {
+                            handleMessage(this, buffer, start, i - start);
+                            start = i + 1;
+                        }
+                    }
+                    if (start == end) {
+                        start = 0;
+                        end = 0;
+                    }
+                }
+            } catch (IOException e) {
+                if (!stopping) {
+                    logger.error("Failed to read from MCP server process: {}", serverName, e);
+                }
+            } finally {
+                writer.interrupt();
+                onSessionEnded(this, new IOException("MCP server process exited: " + serverName));
+            }
+        }
+
+        private void stderrLoop() {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    logger.debug("[{}] {}", serverName, line);
+                }
+            } catch (IOException e) {
+                // Process is gone, nothing left to log
+            }
+        }
+
+        void failPending(Throwable error) {
+            for (Long id : pendingRequests.keySet()) {
+                PendingRequest pending = pendingRequests.remove(id);
+                if (pending != null) {
+                    pending.sink().error(error);
+                }
+            }
+        }
+
+        /**
+         * Close stdin, then escalate to SIGTERM and SIGKILL if the process does not exit.
+         * Never blocks: the escalation waits on the process's exit in the background, as
+         * this also runs on reactive threads when a connection is restarted.
+         */
+        void stop() {
+            stopping = true;
+            writer.interrupt();
+            try {
+                process.getOutputStream().close();
+            } catch (IOException e) {
+                process.destroyForcibly();
+            }
+            failPending(new IOException("Connection to MCP server closed: " + serverName));
+
+            afterGracePeriod(() -> {
+                process.destroy();
+                afterGracePeriod(process::destroyForcibly);
+            });
+        }
+
+        /**
+         * Run the action if the process is still alive once the grace period is over
+         */
+        private void afterGracePeriod(Runnable action) {
+            process.onExit()
+                .completeOnTimeout(process, SHUTDOWN_GRACE_PERIOD.toMillis(), TimeUnit.MILLISECONDS)
+                .thenRun(() -> {
+                    if (process.isAlive()) {
+                        action.run();
+                    }
+                });
+        }
+
+        private Thread daemon(String name, Runnable task) {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private record MessageHeader(Long id, boolean hasMethod) {}
+
+    /**
+     * Turns the bytes of one response line into what the request's caller expects
+     */
+    @FunctionalInterface
+    private interface ResponseDecoder {
+        Object decode(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    /**
+     * A request awaiting its response, with how to decode the response and the
+     * method it was sent for
+     */
+    private record PendingRequest(MonoSink<?> sink, ResponseDecoder decoder, String method) {
+
+        @SuppressWarnings("unchecked")
+        void complete(Object response) {
+            ((MonoSink<Object>) sink).success(response);
+        }
+    }
+}
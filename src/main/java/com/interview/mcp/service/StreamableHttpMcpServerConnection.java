@@ -0,0 +1,409 @@
+package com.interview.mcp.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * MCP Streamable HTTP transport.
+ *
+ * Every message is POSTed to the MCP endpoint, and the server answers either with a
+ * JSON body or with an SSE stream carrying the response along with notifications and
+ * requests sent while it was working (progress, for example). A separate long-lived
+ * GET stream receives messages the server pushes on its own, such as list_changed
+ * notifications; it is reopened with Last-Event-ID when it drops. The session id the
+ * server assigns at initialize is sent with every later request, and the session is
+ * ended with DELETE on close.
+ */
+public class StreamableHttpMcpServerConnection extends AbstractMcpServerConnection {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamableHttpMcpServerConnection.class);
+
+    private static final String SESSION_HEADER = "Mcp-Session-Id";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_EVENT =
+        new ParameterizedTypeReference<>() {};
+
+    private final String serverUrl;
+    private final String endpoint;
+    private final WebClient webClient;
+
+    private volatile String sessionId;
+    private volatile String lastEventId;
+    private volatile Disposable eventStream;
+
+    public StreamableHttpMcpServerConnection(String serverName, String serverUrl, WebClient webClient,
+                                             ObjectMapper objectMapper, Scheduler scheduler) {
+        super(serverName, objectMapper, scheduler);
+        this.serverUrl = serverUrl;
+        this.endpoint = serverUrl + "/mcp";
+        this.webClient = webClient.mutate()
+            .filter(McpMetrics.responseSizeFilter(this::metrics))
+            .build();
+    }
+
+    @Override
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    @Override
+    protected String protocolVersion() {
+        return "2025-03-26";
+    }
+
+    /**
+     * A restarted server no longer knows the old session, so a new one is negotiated
+     */
+    @Override
+    public Mono<Void> reconnectAsync() {
+        return Mono.defer(() -> {
+            Disposable stream = eventStream;
+            if (stream != null) {
+                stream.dispose();
+            }
+            sessionId = null;
+            lastEventId = null;
+            return initializeAsync();
+        });
+    }
+
+    @Override
+    protected Mono<Void> onInitialized() {
+        return notifyServer("notifications/initialized", null)
+            .doOnSuccess(ignored -> openEventStream());
+    }
+
+    @Override
+    protected <T> Mono<McpSchema.JsonRpcResponse<T>> exchange(
+            McpSchema.JsonRpcRequest request, ParameterizedTypeReference<McpSchema.JsonRpcResponse<T>> responseType) {
+        JavaType javaType = objectMapper.getTypeFactory().constructType(responseType.getType());
+        String id = String.valueOf(request.id());
+
+        return post(request)
+            .exchangeToMono(response -> {
+                captureSession(response);
+                if (response.statusCode().isError()) {
+                    return response.createError();
+                }
+                if (isEventStream(response)) {
+                    return events(response)
+                        .concatMapIterable(data -> dispatch(data, Set.of(id)))
+                        .next()
+                        .map(message -> this.<McpSchema.JsonRpcResponse<T>>convert(message, javaType));
+                }
+                return response.bodyToMono(responseType);
+            })
+            .publishOn(scheduler);
+    }
+
+    /**
+     * A JSON response is gathered into one buffer as it arrived; a response sent as an
+     * SSE event has already been parsed to be told apart from notifications, so it is
+     * written out again
+     */
+    @Override
+    protected Mono<DataBuffer> exchangeRaw(McpSchema.JsonRpcRequest request) {
+        String id = String.valueOf(request.id());
+
+        return post(request)
+            .exchangeToMono(response -> {
+                captureSession(response);
+                if (response.statusCode().isError()) {
+                    return response.<DataBuffer>createError();
+                }
+                if (isEventStream(response)) {
+                    return events(response)
+                        .concatMapIterable(data -> dispatch(data, Set.of(id)))
+                        .next()
+                        .map(this::toBuffer);
+                }
+                return response.bodyToMono(DataBuffer.class);
+            })
+            .publishOn(scheduler)
+            .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * Notifications are answered with 202 Accepted and no body
+     */
+    @Override
+    protected Mono<Void> sendNotification(Map<String, Object> notification) {
+        return post(notification)
+            .retrieve()
+            .toBodilessEntity()
+            .then();
+    }
+
+    /**
+     * Send all requests as one JSON-RPC batch array; the responses arrive as one JSON
+     * array or one by one on an SSE stream
+     */
+    @Override
+    protected <T> Mono<List<McpSchema.JsonRpcResponse<T>>> exchangeBatch(
+            List<McpSchema.JsonRpcRequest> requests, ParameterizedTypeReference<McpSchema.JsonRpcResponse<T>> responseType) {
+        JavaType javaType = objectMapper.getTypeFactory().constructType(responseType.getType());
+        Set<String> ids = new HashSet<>();
+        requests.forEach(request -> ids.add(String.valueOf(request.id())));
+
+        return post(requests)
+            .exchangeToFlux(response -> {
+                captureSession(response);
+                if (response.statusCode().isError()) {
+                    return response.<McpSchema.JsonRpcResponse<T>>createError().flux();
+                }
+                if (isEventStream(response)) {
+                    return events(response)
+                        .concatMapIterable(data -> dispatch(data, ids))
+                        .take(ids.size())
+                        .map(message -> this.<McpSchema.JsonRpcResponse<T>>convert(message, javaType));
+                }
+                return response.bodyToFlux(responseType);
+            })
+            .collectList()
+            .publishOn(scheduler)
+            .map(responses -> matchBatchResponses(requests, responses));
+    }
+
+    /**
+     * Stream a JSON response as it arrives; a response sent as an SSE event is decoded whole
+     */
+    @Override
+    public Flux<DataBuffer> readResourceContent(String uri) {
+        return Flux.defer(() -> {
+            if (!isConnected()) {
+                return Flux.error(new IllegalStateException("Not connected to MCP server"));
+            }
+
+            logger.info("Streaming resource {} from server {}", uri, serverName);
+
+            McpSchema.JsonRpcRequest resourceRequest = createJsonRpcRequest("resources/read", Map.of("uri", uri));
+            return callStreaming(resourceRequest, traced -> post(traced).exchangeToFlux(response -> {
+                if (response.statusCode().isError()) {
+                    return response.<DataBuffer>createError().flux();
+                }
+                if (isEventStream(response)) {
+                    return events(response)
+                        .concatMapIterable(data -> dispatch(data, Set.of(String.valueOf(resourceRequest.id()))))
+                        .next()
+                        .flatMapMany(message -> ResourceContentStreamDecoder.decode(Flux.just(
+                            DefaultDataBufferFactory.sharedInstance.wrap(message.toString().getBytes(StandardCharsets.UTF_8)))));
+                }
+                return ResourceContentStreamDecoder.decode(response.bodyToFlux(DataBuffer.class));
+            }));
+        });
+    }
+
+    /**
+     * A server that stopped answering pings gets no more GET requests until it is reconnected
+     */
+    @Override
+    protected void markDisconnected() {
+        super.markDisconnected();
+        Disposable stream = eventStream;
+        if (stream != null) {
+            stream.dispose();
+        }
+    }
+
+    /**
+     * Never blocks, as it also runs on reactive threads when a connection fails
+     */
+    @Override
+    public void close() throws Exception {
+        try {
+            Disposable stream = eventStream;
+            if (stream != null) {
+                stream.dispose();
+            }
+            String session = sessionId;
+            if (isConnected() && session != null) {
+                // Let the server free the session in the background; it expires on its own if this fails
+                webClient.delete()
+                    .uri(endpoint)
+                    .header(SESSION_HEADER, session)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofSeconds(2))
+                    .subscribe(null, e ->
+                        logger.debug("Failed to end session on MCP server {}: {}", serverName, e.getMessage()));
+            }
+        } finally {
+            super.close();
+        }
+    }
+
+    /**
+     * Keep the GET stream for server-initiated messages open while connected, reopening
+     * it with backoff whenever it ends or fails. Servers that do not offer one answer 405.
+     */
+    private void openEventStream() {
+        eventStream = Flux.defer(() -> webClient.get()
+                .uri(endpoint)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(this::addSessionHeaders)
+                .headers(headers -> {
+                    if (lastEventId != null) {
+                        headers.set("Last-Event-ID", lastEventId);
+                    }
+                })
+                // The stream is idle between notifications, so the pool's response timeout must not apply
+                .httpRequest(request -> {
+                    if (request.getNativeRequest() instanceof HttpClientRequest nativeRequest) {
+                        nativeRequest.responseTimeout(null);
+                    }
+                })
+                .exchangeToFlux(response -> {
+                    if (response.statusCode().value() == 405) {
+                        logger.info("MCP server {} does not offer a notification stream", serverName);
+                        return Flux.error(new UnsupportedOperationException());
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.<ServerSentEvent<String>>createError().flux();
+                    }
+                    logger.info("Opened notification stream from MCP server {}", serverName);
+                    return response.bodyToFlux(SSE_EVENT);
+                }))
+            .publishOn(scheduler)
+            .doOnNext(event -> {
+                if (event.id() != null) {
+                    lastEventId = event.id();
+                }
+                if (event.data() != null) {
+                    dispatch(event.data(), Set.of());
+                }
+            })
+            // Only ends and failures reach these, so they must stop reopening once disconnected themselves
+            .repeatWhen(ends -> ends.delayElements(Duration.ofSeconds(1)).takeWhile(end -> isConnected()))
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(30))
+                .filter(e -> isConnected() && !(e instanceof UnsupportedOperationException))
+                .doBeforeRetry(signal -> logger.warn("Notification stream from MCP server {} failed, reopening: {}",
+                                                     serverName, signal.failure().getMessage())))
+            .takeWhile(event -> isConnected())
+            .subscribe(null, e -> {
+                if (isConnected() && !(e instanceof UnsupportedOperationException)) {
+                    logger.error("Notification stream from MCP server {} stopped", serverName, e);
+                }
+            });
+    }
+
+    /**
+     * Handle the messages of one SSE event and return the responses to the given
+     * request ids. Notifications and server requests are handled on the way.
+     */
+    private List<JsonNode> dispatch(String data, Set<String> ids) {
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(data);
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed event from MCP server {}: {}", serverName, e.getMessage());
+            return List.of();
+        }
+
+        List<JsonNode> responses = new ArrayList<>();
+        for (JsonNode message : payload.isArray() ? payload : List.of(payload)) {
+            if (message.hasNonNull("method")) {
+                String method = message.get("method").asText();
+                if (message.hasNonNull("id")) {
+                    sendResponse(handleServerRequest(method, message.get("id")));
+                } else {
+                    handleNotification(method, message.get("params"));
+                }
+            } else if (message.hasNonNull("id") && ids.contains(message.get("id").asText())) {
+                responses.add(message);
+            } else {
+                logger.debug("Dropping message from MCP server {} with no pending request", serverName);
+            }
+        }
+        return responses;
+    }
+
+    private void sendResponse(Map<String, Object> response) {
+        post(response)
+            .retrieve()
+            .toBodilessEntity()
+            .subscribe(null, e -> logger.warn("Failed to answer request from MCP server {}: {}", serverName, e.getMessage()));
+    }
+
+    private <T> T convert(JsonNode message, JavaType type) {
+        try {
+            return objectMapper.treeToValue(message, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed response from MCP server " + serverName, e);
+        }
+    }
+
+    private DataBuffer toBuffer(JsonNode message) {
+        try {
+            return DefaultDataBufferFactory.sharedInstance.wrap(objectMapper.writeValueAsBytes(message));
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed response from MCP server " + serverName, e);
+        }
+    }
+
+    private Flux<String> events(ClientResponse response) {
+        return response.bodyToFlux(SSE_EVENT)
+            .mapNotNull(ServerSentEvent::data);
+    }
+
+    private static boolean isEventStream(ClientResponse response) {
+        return response.headers().contentType()
+            .map(MediaType.TEXT_EVENT_STREAM::isCompatibleWith)
+            .orElse(false);
+    }
+
+    /**
+     * The body is encoded into a pooled buffer when the request is written, and again
+     * on every resubscription
+     */
+    private WebClient.RequestHeadersSpec<?> post(Object body) {
+        return webClient.post()
+            .uri(endpoint)
+            .attribute(McpMetrics.METHOD_ATTRIBUTE, methodOf(body))
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON, MediaType.TEXT_EVENT_STREAM)
+            .headers(this::addSessionHeaders)
+            .body(Mono.fromCallable(() -> encodeMessage(body)), DataBuffer.class);
+    }
+
+    private void captureSession(ClientResponse response) {
+        String session = response.headers().asHttpHeaders().getFirst(SESSION_HEADER);
+        if (session != null && !session.equals(sessionId)) {
+            logger.info("MCP server {} assigned session {}", serverName, session);
+            sessionId = session;
+        }
+    }
+
+    /**
+     * Send the session id once the server has assigned one
+     */
+    private void addSessionHeaders(HttpHeaders headers) {
+        String session = sessionId;
+        if (session != null) {
+            headers.set(SESSION_HEADER, session);
+        }
+    }
+}
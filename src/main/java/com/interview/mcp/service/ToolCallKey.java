@@ -0,0 +1,30 @@
+package com.interview.mcp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.Map;
+
+/**
+ * Identity of a tool call: server, tool and the parameters in canonical JSON form.
+ *
+ * Map keys are sorted at every level, so the same arguments sent in a different
+ * order produce equal keys.
+ */
+public record ToolCallKey(String serverName, String toolName, String parameters) {
+
+    private static final ObjectWriter CANONICAL_WRITER = new ObjectMapper()
+        .writer()
+        .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    public static ToolCallKey of(String serverName, String toolName, Map<String, Object> parameters) {
+        try {
+            return new ToolCallKey(serverName, toolName,
+                CANONICAL_WRITER.writeValueAsString(parameters != null ? parameters : Map.of()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Tool parameters cannot be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.interview.mcp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.model.McpToolInfo;
+import com.interview.mcp.schema.McpSchema;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Index of the tools offered by all connected servers.
+ *
+ * The index is an immutable snapshot that is replaced whenever a server connects,
+ * disconnects or reloads its tool list. Readers never lock: they see either the old
+ * or the new snapshot in full. The snapshot also carries the JSON of the complete
+ * tool list, so GET /api/mcp/tools does not serialize anything per request.
+ */
+@Component
+public class ToolRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolRegistry.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * One immutable view of the registry
+     */
+    private record Snapshot(Map<String, Map<String, McpToolInfo>> toolsByServer,
+                            Map<String, List<McpToolInfo>> toolListsByServer,
+                            List<McpToolInfo> allTools,
+                            byte[] json) {}
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void initialize() {
+        snapshot = build(Map.of());
+    }
+
+    /**
+     * Replace the tools of one server
+     */
+    public synchronized void register(String serverName, String serverUrl, List<McpSchema.Tool> tools) {
+        Map<String, McpToolInfo> serverTools = new LinkedHashMap<>();
+        for (McpSchema.Tool tool : tools) {
+            serverTools.put(tool.name(),
+                new McpToolInfo(tool.name(), tool.description(), serverName, serverUrl, tool.inputSchema()));
+        }
+
+        Map<String, Map<String, McpToolInfo>> toolsByServer = new LinkedHashMap<>(snapshot.toolsByServer());
+        toolsByServer.put(serverName, Collections.unmodifiableMap(serverTools));
+        snapshot = build(toolsByServer);
+        logger.debug("Registered {} tools of MCP server {}", serverTools.size(), serverName);
+    }
+
+    /**
+     * Drop every tool of one server
+     */
+    public synchronized void remove(String serverName) {
+        if (!snapshot.toolsByServer().containsKey(serverName)) {
+            return;
+        }
+        Map<String, Map<String, McpToolInfo>> toolsByServer = new LinkedHashMap<>(snapshot.toolsByServer());
+        toolsByServer.remove(serverName);
+        snapshot = build(toolsByServer);
+    }
+
+    /**
+     * All tools of all servers
+     */
+    public List<McpToolInfo> getTools() {
+        return snapshot.allTools();
+    }
+
+    /**
+     * All tools as the JSON array served by GET /api/mcp/tools
+     */
+    public byte[] getToolsJson() {
+        return snapshot.json();
+    }
+
+    /**
+     * Tools of one server, empty if the server is not registered
+     */
+    public List<McpToolInfo> getTools(String serverName) {
+        return snapshot.toolListsByServer().getOrDefault(serverName, List.of());
+    }
+
+    public Optional<McpToolInfo> findTool(String serverName, String toolName) {
+        Map<String, McpToolInfo> serverTools = snapshot.toolsByServer().get(serverName);
+        return serverTools != null ? Optional.ofNullable(serverTools.get(toolName)) : Optional.empty();
+    }
+
+    private Snapshot build(Map<String, Map<String, McpToolInfo>> toolsByServer) {
+        List<McpToolInfo> allTools = new ArrayList<>();
+        Map<String, List<McpToolInfo>> toolListsByServer = new HashMap<>();
+        toolsByServer.forEach((serverName, serverTools) -> {
+            List<McpToolInfo> serverList = List.copyOf(serverTools.values());
+            toolListsByServer.put(serverName, serverList);
+            allTools.addAll(serverList);
+        });
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(allTools);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Tool list cannot be serialized", e);
+        }
+
+        return new Snapshot(Collections.unmodifiableMap(toolsByServer), Map.copyOf(toolListsByServer),
+                            List.copyOf(allTools), json);
+    }
+}
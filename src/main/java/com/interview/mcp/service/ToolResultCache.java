@@ -0,0 +1,229 @@
+package com.interview.mcp.service;
+
+import com.interview.mcp.config.McpServerProperties;
+import com.interview.mcp.model.McpApiCallResult;
+import com.interview.mcp.schema.McpSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Caches successful results of tools that opted in via mcp.servers[].tools.<tool>.cache.
+ *
+ * Entries are keyed by {@link ToolCallKey}, so the same arguments in a different order
+ * share an entry. The cache is an LRU map bounded by both entry count and the estimated
+ * size of the cached results, taken from the length of their text rather than by
+ * serializing them. Results with image, audio or blob content are not cached, since their
+ * decoded bytes live in direct memory that would stay pinned until the entry expires.
+ * Concurrent misses for idempotent tools are coalesced by the caller's {@link SingleFlight},
+ * so they share one upstream call.
+ */
+@Component
+public class ToolResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolResultCache.class);
+
+    @Autowired
+    private McpServerProperties mcpServerProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Rough heap cost of an object and its references, added for every content item and value
+    private static final long OBJECT_OVERHEAD = 16;
+
+    private record CacheEntry(McpApiCallResult result, long weight, long expiresAtNanos) {}
+
+    // Access-ordered so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<ToolCallKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictedForCapacity;
+    private Counter evictedExpired;
+
+    @PostConstruct
+    public void initialize() {
+        hits = Counter.builder("mcp.cache.hits")
+            .description("Tool calls answered from the result cache")
+            .register(meterRegistry);
+        misses = Counter.builder("mcp.cache.misses")
+            .description("Cacheable tool calls that had to go to the server")
+            .register(meterRegistry);
+        evictedForCapacity = Counter.builder("mcp.cache.evictions")
+            .tag("cause", "capacity")
+            .description("Entries removed from the tool result cache")
+            .register(meterRegistry);
+        evictedExpired = Counter.builder("mcp.cache.evictions")
+            .tag("cause", "expired")
+            .description("Entries removed from the tool result cache")
+            .register(meterRegistry);
+        Gauge.builder("mcp.cache.entries", this, ToolResultCache::size)
+            .description("Entries in the tool result cache")
+            .register(meterRegistry);
+        Gauge.builder("mcp.cache.size", this, ToolResultCache::weight)
+            .baseUnit("bytes")
+            .description("Estimated size of the cached tool results")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Return the cached result for a call, or run the loader and cache its result
+     *
+     * @param ttl How long a result stays fresh; null uses mcp.cache.default-ttl
+     * @param loader Performs the real tool call; only successful results are cached
+     */
+    public Mono<McpApiCallResult> get(ToolCallKey key, Duration ttl, Supplier<Mono<McpApiCallResult>> loader) {
+        McpServerProperties.Cache settings = mcpServerProperties.getCache();
+        if (!settings.isEnabled()) {
+            return loader.get();
+        }
+
+        return Mono.defer(() -> {
+            McpApiCallResult cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            misses.increment();
+
+            Duration timeToLive = ttl != null ? ttl : settings.getDefaultTtl();
+            return loader.get()
+                .doOnNext(result -> {
+                    if (result.isSuccess()) {
+                        store(key, result, timeToLive);
+                    }
+                });
+        });
+    }
+
+    /**
+     * Drop every cached result of one server
+     */
+    public synchronized void invalidate(String serverName) {
+        Iterator<Map.Entry<ToolCallKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ToolCallKey, CacheEntry> entry = iterator.next();
+            if (entry.getKey().serverName().equals(serverName)) {
+                totalWeight -= entry.getValue().weight();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    private synchronized McpApiCallResult lookup(ToolCallKey key) {
+        CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            entries.remove(key);
+            totalWeight -= entry.weight();
+            evictedExpired.increment();
+            return null;
+        }
+        return entry.result();
+    }
+
+    private void store(ToolCallKey key, McpApiCallResult result, Duration ttl) {
+        if (holdsBinary(result.getData())) {
+            logger.debug("Not caching result of tool {} on server {}: it holds binary content",
+                        key.toolName(), key.serverName());
+            return;
+        }
+        long weight = estimateWeight(result.getData()) + key.parameters().length();
+
+        McpServerProperties.Cache settings = mcpServerProperties.getCache();
+        long maxWeight = settings.getMaxSize().toBytes();
+        if (weight > maxWeight) {
+            return;
+        }
+
+        CacheEntry entry = new CacheEntry(result, weight, System.nanoTime() + ttl.toNanos());
+        synchronized (this) {
+            CacheEntry previous = entries.put(key, entry);
+            if (previous != null) {
+                totalWeight -= previous.weight();
+            }
+            totalWeight += weight;
+
+            Iterator<CacheEntry> eldest = entries.values().iterator();
+            while ((entries.size() > settings.getMaxEntries() || totalWeight > maxWeight) && eldest.hasNext()) {
+                totalWeight -= eldest.next().weight();
+                eldest.remove();
+                evictedForCapacity.increment();
+            }
+        }
+    }
+
+    private static boolean holdsBinary(Object data) {
+        if (!(data instanceof Collection<?> content)) {
+            return false;
+        }
+        for (Object item : content) {
+            if (item instanceof McpSchema.ImageContent || item instanceof McpSchema.AudioContent
+                    || item instanceof McpSchema.EmbeddedResource embedded
+                       && embedded.resource() != null && embedded.resource().blob() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Approximate size of a result from the length of its text, plus a fixed overhead per value
+     */
+    private static long estimateWeight(Object value) {
+        if (value instanceof McpSchema.TextContent text) {
+            return OBJECT_OVERHEAD + length(text.text());
+        }
+        if (value instanceof McpSchema.EmbeddedResource embedded) {
+            McpSchema.ResourceContents resource = embedded.resource();
+            return resource == null ? OBJECT_OVERHEAD
+                : OBJECT_OVERHEAD + length(resource.uri()) + length(resource.mimeType()) + length(resource.text());
+        }
+        if (value instanceof McpSchema.UnknownContent unknown) {
+            return estimateWeight(unknown.fields());
+        }
+        if (value instanceof CharSequence text) {
+            return OBJECT_OVERHEAD + text.length();
+        }
+        long weight = OBJECT_OVERHEAD;
+        if (value instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                weight += estimateWeight(entry.getKey()) + estimateWeight(entry.getValue());
+            }
+        } else if (value instanceof Collection<?> values) {
+            for (Object element : values) {
+                weight += estimateWeight(element);
+            }
+        }
+        return weight;
+    }
+
+    private static long length(String text) {
+        return text != null ? text.length() : 0;
+    }
+}
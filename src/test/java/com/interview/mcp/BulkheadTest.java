@@ -0,0 +1,75 @@
+package com.interview.mcp;
+
+import com.interview.mcp.service.Bulkhead;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Simple tests for the per-server bulkhead
+ */
+class BulkheadTest {
+
+    @Test
+    void queuesCallsBeyondLimitAndRejectsWhenQueueIsFull() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+
+        StepVerifier.create(bulkhead.execute(first::asMono))
+            .then(() -> {
+                // Second call waits for the permit, third call is rejected
+                bulkhead.execute(second::asMono).subscribe();
+                assertEquals(1, bulkhead.getActiveCalls());
+                assertEquals(1, bulkhead.getQueuedCalls());
+            })
+            .then(() -> StepVerifier.create(bulkhead.execute(() -> Mono.just("third")))
+                .expectError(Bulkhead.BulkheadFullException.class)
+                .verify())
+            .then(() -> first.tryEmitValue("first"))
+            .expectNext("first")
+            .verifyComplete();
+
+        // The permit was handed to the queued call
+        assertEquals(1, bulkhead.getActiveCalls());
+        assertEquals(0, bulkhead.getQueuedCalls());
+        assertEquals(1, bulkhead.getRejectedCalls());
+
+        second.tryEmitValue("second");
+        assertEquals(0, bulkhead.getActiveCalls());
+    }
+
+    @Test
+    void cancellingWaitingCallFreesItsQueueSlot() {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1);
+        Sinks.One<String> first = Sinks.one();
+
+        bulkhead.execute(first::asMono).subscribe();
+        bulkhead.execute(() -> Mono.just("waiting")).subscribe().dispose();
+
+        assertEquals(0, bulkhead.getQueuedCalls());
+        first.tryEmitValue("done");
+        assertEquals(0, bulkhead.getActiveCalls());
+    }
+
+    @Test
+    void raisingTheLimitStartsWaitingCalls() {
+        Bulkhead bulkhead = new Bulkhead("test", 2, 2);
+        bulkhead.setLimit(1);
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+
+        bulkhead.execute(first::asMono).subscribe();
+        bulkhead.execute(second::asMono).subscribe();
+        assertEquals(1, bulkhead.getActiveCalls());
+        assertEquals(1, bulkhead.getQueuedCalls());
+
+        bulkhead.setLimit(5);
+        assertEquals(2, bulkhead.getLimit());
+        assertEquals(2, bulkhead.getActiveCalls());
+        assertEquals(0, bulkhead.getQueuedCalls());
+    }
+}
@@ -0,0 +1,64 @@
+package com.interview.mcp;
+
+import com.interview.mcp.service.Catalog;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for catalog lookups and diffs
+ */
+class CatalogTest {
+
+    @Test
+    void itemsAreFoundByKeyInOrder() {
+        Catalog<String> catalog = catalog(1, "b", "v1", "a", "v1");
+
+        assertEquals(List.of("b", "a"), catalog.keys());
+        assertEquals(List.of("v1", "v1"), catalog.items());
+        assertEquals("v1", catalog.find("a").orElseThrow());
+        assertTrue(catalog.find("c").isEmpty());
+    }
+
+    @Test
+    void diffCountsAddedRemovedAndChangedItems() {
+        Catalog<String> previous = catalog(1, "a", "v1", "b", "v1", "c", "v1");
+        Catalog<String> loaded = catalog(2, "a", "v1", "b", "v2", "d", "v1");
+
+        Catalog.Diff diff = loaded.diff(previous);
+
+        assertEquals(new Catalog.Diff(1, 1, 1), diff);
+    }
+
+    @Test
+    void unchangedReloadHasEmptyDiff() {
+        Catalog<String> previous = catalog(1, "a", "v1", "b", "v1");
+
+        assertTrue(catalog(2, "a", "v1", "b", "v1").diff(previous).isEmpty());
+        assertEquals(new Catalog.Diff(2, 0, 0), previous.diff(Catalog.empty()));
+    }
+
+    @Test
+    void newerVersionKeepsTheItems() {
+        Catalog<String> catalog = catalog(1, "a", "v1");
+
+        Catalog<String> newer = catalog.withVersion(5);
+
+        assertEquals(5, newer.version());
+        assertSame(catalog.items(), newer.items());
+        assertTrue(newer.diff(catalog).isEmpty());
+    }
+
+    private static Catalog<String> catalog(long version, String... keysAndValues) {
+        LinkedHashMap<String, String> items = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            items.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return Catalog.of(items, version);
+    }
+}
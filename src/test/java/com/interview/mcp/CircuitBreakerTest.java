@@ -0,0 +1,70 @@
+package com.interview.mcp;
+
+import com.interview.mcp.config.McpServerProperties;
+import com.interview.mcp.service.AdaptiveConcurrencyLimit;
+import com.interview.mcp.service.Bulkhead;
+import com.interview.mcp.service.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Simple tests for the per-server circuit breaker and adaptive concurrency limit
+ */
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterFailuresAndClosesAfterSuccessfulTrialCalls() throws InterruptedException {
+        McpServerProperties.CircuitBreakerSettings settings = new McpServerProperties.CircuitBreakerSettings();
+        settings.setMinimumCalls(4);
+        settings.setSlidingWindowSize(4);
+        settings.setOpenDuration(Duration.ofMillis(50));
+        settings.setHalfOpenCalls(2);
+        CircuitBreaker breaker = new CircuitBreaker("test",
+            settings.withDefaults(McpServerProperties.CircuitBreakerSettings.defaults()));
+
+        breaker.execute(() -> Mono.just("ok")).block();
+        breaker.execute(() -> Mono.just("ok")).block();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(breaker.execute(() -> Mono.error(new IOException("connection refused"))))
+                .expectError(IOException.class)
+                .verify();
+        }
+
+        // Half of the last four calls failed, so calls are now refused without reaching the server
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        StepVerifier.create(breaker.execute(() -> Mono.just("ok")))
+            .expectError(CircuitBreaker.CircuitBreakerOpenException.class)
+            .verify();
+        assertEquals(1, breaker.getRejectedCalls());
+
+        Thread.sleep(60);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.execute(() -> Mono.just("ok")).block();
+        breaker.execute(() -> Mono.just("ok")).block();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void concurrencyLimitBacksOffOnFailure() {
+        Bulkhead bulkhead = new Bulkhead("test", 8, 8);
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(bulkhead, 4, 1, Duration.ofSeconds(5), 0.5);
+        assertEquals(4, bulkhead.getLimit());
+
+        StepVerifier.create(limit.execute(() -> Mono.error(new IOException("connection reset"))))
+            .expectError(IOException.class)
+            .verify();
+        assertEquals(2, limit.getLimit());
+        assertEquals(2, bulkhead.getLimit());
+
+        // Successful calls only grow the limit while it is being used
+        limit.execute(() -> Mono.just("ok")).block();
+        assertEquals(2, limit.getLimit());
+    }
+}
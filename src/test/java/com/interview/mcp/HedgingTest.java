@@ -0,0 +1,70 @@
+package com.interview.mcp;
+
+import com.interview.mcp.service.Hedging;
+import com.interview.mcp.service.RetryBudget;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for hedged requests and the retry budget
+ */
+class HedgingTest {
+
+    @Test
+    void hedgeAnswersWhenFirstAttemptIsSlowAndFirstIsCancelled() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+
+        Mono<String> hedged = Hedging.execute(() -> attempts.incrementAndGet() == 1
+            ? Mono.<String>never().doOnCancel(() -> firstCancelled.set(true))
+            : Mono.just("hedge"), Duration.ofMillis(20), () -> true);
+
+        StepVerifier.create(hedged)
+            .expectNext("hedge")
+            .verifyComplete();
+        assertEquals(2, attempts.get());
+        assertTrue(firstCancelled.get());
+    }
+
+    @Test
+    void failureIsReportedWithoutWaitingForTheHedge() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Mono<String> hedged = Hedging.execute(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IOException("connection reset"));
+        }, Duration.ofSeconds(10), () -> true);
+
+        StepVerifier.create(hedged)
+            .expectError(IOException.class)
+            .verify(Duration.ofSeconds(1));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void retryBudgetStopsRetriesOnceHalfTheTokensAreSpent() {
+        RetryBudget budget = new RetryBudget(4, 0.5);
+
+        budget.onFailure();
+        assertTrue(budget.tryAcquire());
+        budget.onFailure();
+        assertFalse(budget.tryAcquire());
+
+        // Two successes earn back one token
+        budget.onSuccess();
+        budget.onSuccess();
+        assertTrue(budget.tryAcquire());
+        assertEquals(2, budget.getRetries());
+        assertEquals(1, budget.getDeniedRetries());
+    }
+}
@@ -0,0 +1,137 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.HttpMcpServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for the HTTP transport against an in-process server
+ */
+class HttpMcpServerConnectionTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private StubMcpServer stub;
+    private HttpMcpServerConnection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubMcpServer();
+        connection = new HttpMcpServerConnection("test", stub.url(), WebClient.create(), new ObjectMapper(),
+            Schedulers.boundedElastic());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+        stub.close();
+    }
+
+    @Test
+    void callIsSentOnlyOnceSubscribed() {
+        connection.initializeAsync().block(TIMEOUT);
+        assertEquals(List.of("echo", "lookup"), connection.getAvailableTools());
+
+        Mono<McpSchema.CallToolResult> call = connection.callToolAsync("echo", Map.of("q", "hi"));
+        assertEquals(0, stub.toolCalls("echo"));
+
+        StepVerifier.create(call)
+            .assertNext(result -> assertFalse(result.isError()))
+            .expectComplete()
+            .verify(TIMEOUT);
+        assertEquals(1, stub.toolCalls("echo"));
+    }
+
+    @Test
+    void resultIsDecodedIntoTypedContent() {
+        connection.initializeAsync().block(TIMEOUT);
+
+        McpSchema.CallToolResult result = connection.callToolAsync("echo", Map.of("q", "hi")).block(TIMEOUT);
+
+        McpSchema.TextContent text = assertInstanceOf(McpSchema.TextContent.class, result.content().get(0));
+        assertEquals("{\"q\":\"hi\"}", text.text());
+        assertNull(result.errorMessage());
+    }
+
+    @Test
+    void errorResponseBecomesFailedResult() {
+        connection.initializeAsync().block(TIMEOUT);
+
+        McpSchema.CallToolResult result = connection.callToolAsync("echo", Map.of("fail", true)).block(TIMEOUT);
+
+        assertTrue(result.isError());
+        assertTrue(result.content().isEmpty());
+        assertEquals("Error: Tool failed", result.errorMessage());
+    }
+
+    @Test
+    void unchangedReloadDoesNotNotifyListener() {
+        connection.initializeAsync().block(TIMEOUT);
+        AtomicInteger changes = new AtomicInteger();
+        connection.setToolsChangedListener(changes::incrementAndGet);
+
+        connection.refreshCatalogAsync(true).block(TIMEOUT);
+
+        assertEquals(0, changes.get());
+        assertEquals(List.of("echo", "lookup"), connection.getAvailableTools());
+    }
+
+    @Test
+    void reloadAfterCloseFailsAndLeavesCatalogEmpty() throws Exception {
+        connection.initializeAsync().block(TIMEOUT);
+
+        connection.close();
+
+        assertFalse(connection.isConnected());
+        assertTrue(connection.getAvailableTools().isEmpty());
+        StepVerifier.create(connection.refreshCatalogAsync(true))
+            .expectError(IllegalStateException.class)
+            .verify(TIMEOUT);
+    }
+
+    @Test
+    void resourceTextIsStreamedAsItsBytes() {
+        connection.initializeAsync().block(TIMEOUT);
+
+        List<String> chunks = connection.readResourceContent("file:///a.txt")
+            .map(buffer -> {
+                String text = buffer.toString(StandardCharsets.UTF_8);
+                DataBufferUtils.release(buffer);
+                return text;
+            })
+            .collectList()
+            .block(TIMEOUT);
+
+        assertEquals("hello", String.join("", chunks));
+    }
+
+    @Test
+    void callBeforeInitializeFailsThroughTheMono() {
+        Mono<McpSchema.CallToolResult> call = connection.callToolAsync("echo", Map.of());
+
+        StepVerifier.create(call)
+            .expectError(IllegalStateException.class)
+            .verify(TIMEOUT);
+        assertEquals(0, stub.toolCalls("echo"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.JsonRpcEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for writing JSON-RPC requests from pre-encoded fragments
+ */
+class JsonRpcEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonRpcEncoder encoder = new JsonRpcEncoder(objectMapper);
+
+    @Test
+    void toolCallCarriesArgumentsProgressTokenAndTraceContext() throws Exception {
+        McpSchema.JsonRpcRequest request = McpSchema.JsonRpcRequest
+            .toolCall(7, "say \"hi\"", Map.of("q", List.of(1, 2)), 42L)
+            .withTraceContext(Map.of("traceparent", "00-abc-def-01"));
+
+        JsonNode json = encode(request);
+
+        assertEquals("2.0", json.get("jsonrpc").asText());
+        assertEquals(7, json.get("id").asLong());
+        assertEquals("tools/call", json.get("method").asText());
+        assertEquals("say \"hi\"", json.at("/params/name").asText());
+        assertEquals(2, json.at("/params/arguments/q/1").asInt());
+        assertEquals(42, json.at("/params/_meta/progressToken").asLong());
+        assertEquals("00-abc-def-01", json.at("/params/_meta/traceparent").asText());
+    }
+
+    @Test
+    void toolCallWithoutProgressTokenOrTraceContextHasNoMeta() throws Exception {
+        JsonNode withoutMeta = encode(McpSchema.JsonRpcRequest.toolCall(3, "echo", Map.of("q", "hi"), null));
+        JsonNode traceOnly = encode(McpSchema.JsonRpcRequest.toolCall(4, "echo", Map.of(), null)
+            .withTraceContext(Map.of("traceparent", "00-abc-def-01")));
+
+        assertEquals("hi", withoutMeta.at("/params/arguments/q").asText());
+        assertFalse(withoutMeta.get("params").has("_meta"));
+        assertEquals("00-abc-def-01", traceOnly.at("/params/_meta/traceparent").asText());
+        assertFalse(traceOnly.at("/params/_meta").has("progressToken"));
+    }
+
+    @Test
+    void requestKeepsParamsNextToTraceContextAndOmitsEmptyParams() throws Exception {
+        JsonNode withParams = encode(McpSchema.JsonRpcRequest.of(1, "resources/read", Map.of("uri", "file:///a"))
+            .withTraceContext(Map.of("traceparent", "00-abc-def-01")));
+        JsonNode withoutParams = encode(McpSchema.JsonRpcRequest.of(2, "tools/list", null));
+
+        assertEquals("file:///a", withParams.at("/params/uri").asText());
+        assertEquals("00-abc-def-01", withParams.at("/params/_meta/traceparent").asText());
+        assertEquals("tools/list", withoutParams.get("method").asText());
+        assertFalse(withoutParams.has("params"));
+    }
+
+    @Test
+    void batchIsOneArrayOfRequests() throws Exception {
+        JsonNode json = encode(List.of(
+            McpSchema.JsonRpcRequest.toolCall(1, "echo", Map.of(), "token"),
+            McpSchema.JsonRpcRequest.toolCall(2, "echo", null, null)));
+
+        assertTrue(json.isArray());
+        assertEquals(2, json.size());
+        assertEquals("token", json.at("/0/params/_meta/progressToken").asText());
+        assertEquals(2, json.at("/1/id").asLong());
+        assertTrue(json.at("/1/params/arguments").isObject());
+    }
+
+    private JsonNode encode(Object message) throws Exception {
+        DataBuffer buffer = encoder.encode(message);
+        try {
+            String text = buffer.toString(StandardCharsets.UTF_8);
+            assertFalse(text.contains("\n"));
+            return objectMapper.readTree(text);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -1,18 +1,41 @@
 package com.interview.mcp;
 
 import com.interview.mcp.controller.McpClientController;
+import com.interview.mcp.model.McpApiCallResult;
+import com.interview.mcp.model.McpToolCallEvent;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.BinaryContentStore;
 import com.interview.mcp.service.McpClientService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -27,6 +50,9 @@ class McpClientControllerTest {
     @MockBean
     private McpClientService mcpClientService;
 
+    @MockBean
+    private BinaryContentStore binaryContentStore;
+
     @Test
     void testHealthEndpoint() throws Exception {
         // Given
@@ -41,11 +67,89 @@ class McpClientControllerTest {
     @Test
     void testToolsEndpoint() throws Exception {
         // Given
-        when(mcpClientService.getAvailableTools()).thenReturn(List.of());
+        when(mcpClientService.getAvailableToolsJson()).thenReturn("[]".getBytes());
 
         // When & Then
         mockMvc.perform(get("/api/mcp/tools"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray());
     }
+
+    @Test
+    void testStreamToolCallEndsWithResultEvent() throws Exception {
+        // Given
+        when(mcpClientService.callToolStreaming(eq("math"), eq("add"), any(), isNull()))
+            .thenReturn(Flux.just(McpToolCallEvent.progress(50, 100.0, "halfway"),
+                                  McpToolCallEvent.result(new McpApiCallResult(true, "Success", 8))));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/mcp/tools/call/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .content("{\"serverName\":\"math\",\"toolName\":\"add\",\"parameters\":{}}"))
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:progress\ndata:{\"type\":\"progress\",\"progress\":50.0")))
+                .andExpect(content().string(containsString("event:result\ndata:{\"type\":\"result\"")));
+    }
+
+    @Test
+    void testReadResourceStreamsChunksWithResourceMimeType() throws Exception {
+        // Given
+        when(mcpClientService.hasServer("files")).thenReturn(true);
+        when(mcpClientService.findResource("files", "file:///a.txt"))
+            .thenReturn(Optional.of(new McpSchema.Resource("file:///a.txt", "a", null, "text/plain", null)));
+        when(mcpClientService.readResourceContent("files", "file:///a.txt"))
+            .thenReturn(Flux.just("first ", "second").map(chunk ->
+                DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/mcp/resources/files/read").param("uri", "file:///a.txt"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        // Then
+        assertEquals("text/plain", result.getResponse().getContentType());
+        assertEquals("first second", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testContentWithInvalidMimeTypeIsServedAsOctetStream(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = Files.write(directory.resolve("payload"), new byte[] {1, 2, 3});
+        when(binaryContentStore.find("abc"))
+            .thenReturn(Optional.of(new BinaryContentStore.SpilledFile(file, "not a media type", 3, Long.MAX_VALUE)));
+
+        // When & Then
+        mockMvc.perform(get("/api/mcp/content/abc"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(content().bytes(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void testPassthroughToolCallSplicesResultIntoEnvelope() throws Exception {
+        // Given
+        String serverResult = "{ \"content\": [{\"type\":\"text\",\"text\":\"8\"}] }";
+        McpSchema.RawCallToolResult raw = new McpSchema.RawCallToolResult(
+            DefaultDataBufferFactory.sharedInstance.wrap(serverResult.getBytes(StandardCharsets.UTF_8)), false);
+        when(mcpClientService.callToolRaw(eq("math"), eq("add"), any(), isNull()))
+            .thenReturn(Mono.just(new McpApiCallResult(true, "Success", raw)));
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/mcp/tools/call?passthrough=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"serverName\":\"math\",\"toolName\":\"add\",\"parameters\":{}}"))
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("{\"success\":true,\"message\":\"Success\",\"data\":" + serverResult + "}"));
+    }
 }
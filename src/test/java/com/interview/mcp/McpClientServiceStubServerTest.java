@@ -0,0 +1,300 @@
+package com.interview.mcp;
+
+import com.interview.mcp.model.McpApiCallResult;
+import com.interview.mcp.model.McpServerInfo;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.McpClientService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple integration tests for McpClientService against an in-process server
+ */
+@SpringBootTest
+class McpClientServiceStubServerTest {
+
+    private static final StubMcpServer stub = startStub();
+    private static final StubMcpServer stalled = startStub();
+
+    @Autowired
+    private McpClientService mcpClientService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @DynamicPropertySource
+    static void mcpServers(DynamicPropertyRegistry registry) {
+        registry.add("mcp.execution.health-check.enabled", () -> "false");
+        registry.add("mcp.servers[0].name", () -> "stub");
+        registry.add("mcp.servers[0].url", stub::url);
+        registry.add("mcp.servers[0].tools.lookup.idempotent", () -> "true");
+        registry.add("mcp.servers[0].tools.lookup.cache", () -> "true");
+        // Asks for caching without being idempotent, which is ignored
+        registry.add("mcp.servers[0].tools.echo.cache", () -> "true");
+        // Never answers initialize, which would otherwise be waited for ten minutes
+        stalled.stall();
+        registry.add("mcp.servers[1].name", () -> "stalled");
+        registry.add("mcp.servers[1].url", stalled::url);
+        registry.add("mcp.execution.startup-timeout", () -> "1s");
+        registry.add("mcp.execution.initialize-timeout", () -> "10m");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+        stalled.close();
+    }
+
+    @Test
+    void batchResultsAreMatchedToTheirCallsById() {
+        int batches = stub.batches();
+
+        // The server answers the batch in reverse order
+        List<McpApiCallResult> results = batch(
+            new McpSchema.ToolCall("echo", Map.of("n", 1)),
+            new McpSchema.ToolCall("lookup", Map.of("n", 2)),
+            new McpSchema.ToolCall("echo", Map.of("n", 3)));
+
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}", "{\"n\":3}"),
+            results.stream().map(McpClientServiceStubServerTest::text).toList());
+        assertEquals(batches + 1, stub.batches());
+    }
+
+    @Test
+    void failedCallDoesNotFailRestOfBatch() {
+        List<McpApiCallResult> results = batch(
+            new McpSchema.ToolCall("echo", Map.of("n", 1)),
+            new McpSchema.ToolCall("echo", Map.of("fail", true)),
+            new McpSchema.ToolCall("echo", Map.of("n", 3)));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("{\"n\":3}", text(results.get(2)));
+    }
+
+    @Test
+    void batchOfIdempotentToolsIsRetried() {
+        stub.failNextRequests(1);
+
+        List<McpApiCallResult> results = batch(
+            new McpSchema.ToolCall("lookup", Map.of("n", 1)),
+            new McpSchema.ToolCall("lookup", Map.of("n", 2)));
+
+        assertEquals("{\"n\":2}", text(results.get(1)));
+    }
+
+    @Test
+    void batchWithToolWithSideEffectsIsNotRetried() {
+        int sent = stub.toolCalls("echo");
+        stub.failNextRequests(1);
+
+        McpApiCallResult result = mcpClientService.callTools("stub", List.of(
+                new McpSchema.ToolCall("lookup", Map.of("n", 1)),
+                new McpSchema.ToolCall("echo", Map.of("n", 2))))
+            .block(Duration.ofSeconds(5));
+
+        assertFalse(result.isSuccess());
+        assertEquals(sent, stub.toolCalls("echo"));
+    }
+
+    @Test
+    void poolAcquireTimerStopsOnceConnectionIsHeld() {
+        Timer acquire = meterRegistry.get("mcp.http.pool.acquire").tag("server", "stub").timer();
+        // Only this call is measured, not the first connection opened at startup
+        long count = acquire.count();
+        double millis = acquire.totalTime(TimeUnit.MILLISECONDS);
+
+        McpApiCallResult result = mcpClientService.callTool("stub", "echo", Map.of("delayMs", 500))
+            .block(Duration.ofSeconds(5));
+
+        assertTrue(result.isSuccess());
+        assertTrue(acquire.count() > count);
+        // Waiting for the response is not part of acquiring the connection
+        double acquired = acquire.totalTime(TimeUnit.MILLISECONDS) - millis;
+        assertTrue(acquired < 250, "acquire took " + acquired + " ms");
+    }
+
+    @Test
+    void startupDoesNotWaitForServerThatNeverAnswers() {
+        long startedMillis = System.currentTimeMillis() - applicationContext.getStartupDate();
+
+        McpServerInfo server = mcpClientService.getConnectedServers().stream()
+            .filter(info -> info.getName().equals("stalled"))
+            .findFirst()
+            .orElseThrow();
+
+        assertEquals("CONNECTING", server.getState());
+        assertTrue(startedMillis < Duration.ofMinutes(1).toMillis(), "started after " + startedMillis + " ms");
+    }
+
+    @Test
+    void connectionReplacedUnderSameNameHandsOverItsMeters() throws InterruptedException {
+        assertTrue(mcpClientService.connectToMcpServer(stub.url(), "again").block(Duration.ofSeconds(5)).isSuccess());
+        Gauge replaced = toolsGauge();
+        assertTrue(mcpClientService.connectToMcpServer(stub.url(), "again").block(Duration.ofSeconds(5)).isSuccess());
+
+        // The replaced connection is closed in the background, then the meters are registered again
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        Gauge tools = toolsGauge();
+        while (System.nanoTime() < deadline && (tools == null || tools == replaced)) {
+            Thread.sleep(50);
+            tools = toolsGauge();
+        }
+
+        assertNotNull(tools, "tool catalog gauge was not registered again");
+        assertNotSame(replaced, tools);
+        assertEquals(2.0, tools.value());
+        assertEquals("lookup", mcpClientService.findTool("again", "lookup").orElseThrow().getName());
+    }
+
+    @Test
+    void failedReplacementLeavesEarlierConnectionAndItsMeters() {
+        assertTrue(mcpClientService.connectToMcpServer(stub.url(), "kept").block(Duration.ofSeconds(5)).isSuccess());
+
+        // Nothing listens on port 1, so the new connection fails and is closed
+        assertFalse(mcpClientService.connectToMcpServer("http://127.0.0.1:1", "kept").block(Duration.ofSeconds(5)).isSuccess());
+
+        Gauge tools = meterRegistry.find("mcp.catalog.size").tag("server", "kept").tag("kind", "tools").gauge();
+        assertNotNull(tools, "meters of the earlier connection were removed");
+        assertEquals(2.0, tools.value());
+        assertTrue(mcpClientService.callTool("kept", "echo", Map.of()).block(Duration.ofSeconds(5)).isSuccess());
+    }
+
+    @Test
+    void uptimeStartsOverWhenFailedPingIsFollowedBySuccessfulReconnect() throws InterruptedException {
+        StubMcpServer restarted = startStub();
+        try {
+            assertTrue(mcpClientService.connectToMcpServer(restarted.url(), "restarted").block(Duration.ofSeconds(5)).isSuccess());
+            Thread.sleep(1100);
+            assertEquals(1L, server("restarted").getUptimeSeconds());
+
+            // The ping fails, and the reconnect right after it succeeds
+            restarted.failNextRequests(1);
+            ReflectionTestUtils.invokeMethod(mcpClientService, "checkServers");
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (System.nanoTime() < deadline
+                    && (restarted.initializations() < 2 || !server("restarted").isConnected())) {
+                Thread.sleep(20);
+            }
+            assertEquals(2, restarted.initializations());
+            assertEquals("CONNECTED", server("restarted").getState());
+            assertEquals(0L, server("restarted").getUptimeSeconds());
+        } finally {
+            mcpClientService.disconnectFromServer("restarted");
+            restarted.close();
+        }
+    }
+
+    @Test
+    void identicalCallsToToolWithSideEffectsAreBothSent() {
+        Map<String, Object> parameters = Map.of("to", "someone", "delayMs", 300);
+        int sent = stub.toolCalls("echo");
+
+        Tuple2<McpApiCallResult, McpApiCallResult> results = Mono.zip(
+                mcpClientService.callTool("stub", "echo", parameters),
+                mcpClientService.callTool("stub", "echo", parameters))
+            .block(Duration.ofSeconds(5));
+
+        assertTrue(results.getT1().isSuccess());
+        assertTrue(results.getT2().isSuccess());
+        assertEquals(sent + 2, stub.toolCalls("echo"));
+    }
+
+    @Test
+    void identicalCallsToIdempotentToolShareOneRequest() {
+        Map<String, Object> parameters = Map.of("q", "same", "delayMs", 300);
+        int sent = stub.toolCalls("lookup");
+
+        Tuple2<McpApiCallResult, McpApiCallResult> results = Mono.zip(
+                mcpClientService.callTool("stub", "lookup", parameters),
+                mcpClientService.callTool("stub", "lookup", parameters))
+            .block(Duration.ofSeconds(5));
+
+        assertTrue(results.getT1().isSuccess());
+        assertEquals(results.getT1().getData(), results.getT2().getData());
+        assertEquals(sent + 1, stub.toolCalls("lookup"));
+    }
+
+    @Test
+    void repeatedCallToCachedToolIsAnsweredFromCache() {
+        Map<String, Object> parameters = Map.of("q", "cached");
+        int sent = stub.toolCalls("lookup");
+
+        McpApiCallResult first = mcpClientService.callTool("stub", "lookup", parameters).block(Duration.ofSeconds(5));
+        McpApiCallResult second = mcpClientService.callTool("stub", "lookup", parameters).block(Duration.ofSeconds(5));
+
+        assertTrue(second.isSuccess());
+        assertEquals(first.getData(), second.getData());
+        assertEquals(sent + 1, stub.toolCalls("lookup"));
+    }
+
+    @Test
+    void cacheIsBypassedForToolWithSideEffects() {
+        Map<String, Object> parameters = Map.of("to", "someone else");
+        int sent = stub.toolCalls("echo");
+
+        mcpClientService.callTool("stub", "echo", parameters).block(Duration.ofSeconds(5));
+        McpApiCallResult second = mcpClientService.callTool("stub", "echo", parameters).block(Duration.ofSeconds(5));
+
+        assertTrue(second.isSuccess());
+        assertEquals(sent + 2, stub.toolCalls("echo"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<McpApiCallResult> batch(McpSchema.ToolCall... calls) {
+        McpApiCallResult result = mcpClientService.callTools("stub", List.of(calls)).block(Duration.ofSeconds(5));
+        assertTrue(result.isSuccess(), result.getMessage());
+        return (List<McpApiCallResult>) result.getData();
+    }
+
+    private static String text(McpApiCallResult result) {
+        return ((McpSchema.TextContent) ((List<?>) result.getData()).get(0)).text();
+    }
+
+    private McpServerInfo server(String name) {
+        return mcpClientService.getConnectedServers().stream()
+            .filter(info -> info.getName().equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private Gauge toolsGauge() {
+        return meterRegistry.find("mcp.catalog.size").tag("server", "again").tag("kind", "tools").gauge();
+    }
+
+    private static StubMcpServer startStub() {
+        try {
+            return new StubMcpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.interview.mcp;
+
+import com.interview.mcp.service.McpMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for the meters of one server connection
+ */
+class McpMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final McpMetrics metrics = new McpMetrics(registry, "test");
+
+    @Test
+    void exchangeIsTimedByMethodToolAndOutcome() {
+        metrics.timed("tools/call", "echo", Mono.just("ok"), response -> McpMetrics.Outcome.SUCCESS)
+            .block();
+
+        assertNotNull(registry.find("mcp.requests")
+            .tags("server", "test", "method", "tools/call", "tool", "echo", "outcome", "success")
+            .timer());
+        assertEquals(0.0, registry.get("mcp.requests.in.flight").gauge().value());
+    }
+
+    @Test
+    void exchangeEndingAfterCloseDoesNotRegisterMetersAgain() {
+        Sinks.One<String> response = Sinks.one();
+        metrics.timed("tools/call", "echo", response.asMono(), value -> McpMetrics.Outcome.SUCCESS).subscribe();
+
+        metrics.close();
+        response.tryEmitValue("late");
+        metrics.recordError("tools/call", "-32000");
+        metrics.recordResponseSize("tools/call", 128);
+
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,238 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.service.HttpMcpServerConnection;
+import com.interview.mcp.service.McpTracing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for trace propagation to MCP servers, with spans exported in memory
+ */
+class McpTracingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // What the server received per JSON-RPC method: the traceparent header and params._meta
+    private final Map<String, String> traceparentHeaders = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> metas = new ConcurrentHashMap<>();
+    private final InMemorySpanExporter spans = InMemorySpanExporter.create();
+    private HttpServer server;
+    private SdkTracerProvider tracerProvider;
+    private McpTracing tracing;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/mcp", this::handle);
+        // Slow calls must not hold up the cancellations sent while they run
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(spans))
+            .build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("test");
+        OtelTracer tracer = new OtelTracer(otelTracer, new OtelCurrentTraceContext(), event -> {});
+        OtelPropagator propagator = new OtelPropagator(
+            ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+            new PropagatingSenderTracingObservationHandler<>(tracer, propagator),
+            new DefaultTracingObservationHandler(tracer)));
+        tracing = new McpTracing(registry, propagator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        tracerProvider.close();
+    }
+
+    @Test
+    void toolCallSpanIsContinuedByServerThroughHeadersAndMeta() throws Exception {
+        HttpMcpServerConnection connection = connect();
+
+        tracing.observe("test.request", null, KeyValues.empty(), KeyValues.empty(),
+                observation -> connection.callToolAsync("echo", Map.of("q", "hi"), "progress-1"))
+            .block(Duration.ofSeconds(5));
+        connection.close();
+
+        // Spans end just after the result has been handed on
+        SpanData parent = awaitSpan("test.request");
+        SpanData request = awaitSpan("tools/call echo");
+        List<SpanData> exported = spans.getFinishedSpanItems();
+        SpanData http = exported.stream()
+            .filter(span -> span.getParentSpanId().equals(request.getSpanId()))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(parent.getSpanId(), request.getParentSpanId());
+        assertEquals("test", request.getAttributes().asMap().entrySet().stream()
+            .filter(entry -> entry.getKey().getKey().equals("mcp.server"))
+            .findFirst().orElseThrow().getValue());
+
+        // The server sees the HTTP client span in the headers and the request span in _meta
+        String header = traceparentHeaders.get("tools/call");
+        JsonNode meta = metas.get("tools/call");
+        assertNotNull(header);
+        assertNotNull(meta);
+        assertTrue(header.contains(http.getTraceId() + "-" + http.getSpanId()));
+        assertTrue(meta.path("traceparent").asText().contains(request.getTraceId() + "-" + request.getSpanId()));
+        // The progress token the call asks for survives next to the trace context
+        assertEquals("progress-1", meta.path("progressToken").asText());
+    }
+
+    @Test
+    void streamedResourceReadIsTracedThroughMeta() throws Exception {
+        HttpMcpServerConnection connection = connect();
+
+        String content = tracing.observeMany("test.request", null, KeyValues.empty(), KeyValues.empty(),
+                observation -> connection.readResourceContent("file:///a.txt"))
+            .map(buffer -> {
+                String text = buffer.toString(StandardCharsets.UTF_8);
+                DataBufferUtils.release(buffer);
+                return text;
+            })
+            .collectList()
+            .map(chunks -> String.join("", chunks))
+            .block(Duration.ofSeconds(5));
+        connection.close();
+
+        assertEquals("hello", content);
+        SpanData parent = awaitSpan("test.request");
+        SpanData read = awaitSpan("resources/read");
+        assertEquals(parent.getSpanId(), read.getParentSpanId());
+        assertTrue(metas.get("resources/read").path("traceparent").asText()
+            .contains(read.getTraceId() + "-" + read.getSpanId()));
+    }
+
+    @Test
+    void cancellationIsTracedUnderTheCancelledCall() throws Exception {
+        HttpMcpServerConnection connection = connect();
+
+        Disposable call = tracing.observe("test.request", null, KeyValues.empty(), KeyValues.empty(),
+                observation -> connection.callToolAsync("echo", Map.of("delayMs", 2000)))
+            .subscribe();
+        awaitMeta("tools/call");
+        call.dispose();
+
+        SpanData parent = awaitSpan("test.request");
+        SpanData cancel = awaitSpan("notifications/cancelled");
+        assertEquals(parent.getSpanId(), cancel.getParentSpanId());
+        assertTrue(awaitMeta("notifications/cancelled").path("traceparent").asText()
+            .contains(cancel.getTraceId() + "-" + cancel.getSpanId()));
+        connection.close();
+    }
+
+    private HttpMcpServerConnection connect() throws Exception {
+        WebClient webClient = WebClient.builder().observationRegistry(tracing.registry()).build();
+        HttpMcpServerConnection connection = new HttpMcpServerConnection("test",
+            "http://127.0.0.1:" + server.getAddress().getPort(), webClient, objectMapper, Schedulers.boundedElastic());
+        connection.setTracing(tracing);
+        connection.initialize();
+        return connection;
+    }
+
+    private JsonNode awaitMeta(String method) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            JsonNode meta = metas.get(method);
+            if (meta != null) {
+                return meta;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Server received no " + method);
+    }
+
+    private SpanData awaitSpan(String name) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            for (SpanData span : spans.getFinishedSpanItems()) {
+                if (span.getName().equals(name)) {
+                    return span;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No span " + name + " in " + spans.getFinishedSpanItems());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String method = request.get("method").asText();
+        if (!request.has("id")) {
+            metas.put(method, request.path("params").path("_meta"));
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+            return;
+        }
+
+        String header = exchange.getRequestHeaders().getFirst("traceparent");
+        if (header != null) {
+            traceparentHeaders.put(method, header);
+        }
+        metas.put(method, request.path("params").path("_meta"));
+
+        Object result = switch (method) {
+            case "initialize" -> Map.of("protocolVersion", "2024-11-05", "capabilities", Map.of());
+            case "tools/list" -> Map.of("tools", List.of(Map.of("name", "echo")));
+            case "tools/call" -> {
+                sleep(request.path("params").path("arguments").path("delayMs").asLong());
+                yield Map.of("content", List.of(Map.of("type", "text", "text", "hi")));
+            }
+            case "resources/read" -> Map.of("contents", List.of(Map.of("uri", "file:///a.txt", "text", "hello")));
+            default -> Map.of();
+        };
+        byte[] bytes = objectMapper.writeValueAsString(Map.of("jsonrpc", "2.0", "id", request.get("id"), "result", result))
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
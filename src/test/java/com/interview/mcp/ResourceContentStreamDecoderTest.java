@@ -0,0 +1,80 @@
+package com.interview.mcp;
+
+import com.interview.mcp.service.ResourceContentStreamDecoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Simple tests for streaming resource content out of a resources/read response
+ */
+class ResourceContentStreamDecoderTest {
+
+    @Test
+    void decodesBlobSplitAcrossChunks() {
+        byte[] payload = new byte[1000];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+        // Escaped slashes are valid JSON inside base64 strings
+        String blob = Base64.getEncoder().encodeToString(payload).replace("/", "\\/");
+        String response = "{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"result\":{\"contents\":["
+            + "{\"uri\":\"file:///a\",\"blob\":\"" + blob + "\",\"mimeType\":\"application/octet-stream\"},"
+            + "{\"uri\":\"file:///b\",\"text\":\"second entry is ignored\"}]}}";
+
+        assertArrayEquals(payload, decode(response, 7));
+    }
+
+    @Test
+    void unescapesText() {
+        String response = "{\"result\":{\"contents\":[{\"text\":\"line\\n\\\"quoted\\\" \\u00e9 \\ud83d\\ude00 é\"}]},"
+            + "\"id\":1,\"jsonrpc\":\"2.0\"}";
+
+        assertEquals("line\n\"quoted\" é 😀 é",
+            new String(decode(response, 3), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reportsJsonRpcError() {
+        String response = "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32002,\"message\":\"Resource not found\"}}";
+
+        StepVerifier.create(ResourceContentStreamDecoder.decode(chunks(response, 5)))
+            .expectErrorMessage("Error reading resource: Resource not found")
+            .verify();
+    }
+
+    private static byte[] decode(String response, int chunkSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (DataBuffer buffer : ResourceContentStreamDecoder.decode(chunks(response, chunkSize)).toIterable()) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            out.writeBytes(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static Flux<DataBuffer> chunks(String response, int chunkSize) {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - i);
+            byte[] chunk = new byte[length];
+            System.arraycopy(bytes, i, chunk, 0, length);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
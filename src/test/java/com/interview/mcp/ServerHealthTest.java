@@ -0,0 +1,68 @@
+package com.interview.mcp;
+
+import com.interview.mcp.config.McpServerProperties;
+import com.interview.mcp.service.ServerHealth;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for the health check state of one server
+ */
+class ServerHealthTest {
+
+    @Test
+    void backsOffAfterFailuresAndRecoversOnPing() throws InterruptedException {
+        McpServerProperties.HealthCheckSettings settings = new McpServerProperties.HealthCheckSettings();
+        settings.setInitialBackoff(Duration.ofMillis(50));
+        Timer pingLatency = Timer.builder("test.ping").register(new SimpleMeterRegistry());
+        ServerHealth health = new ServerHealth(settings, pingLatency);
+        assertNull(health.getLastPingMillis());
+
+        // Only one check at a time
+        assertTrue(health.tryStartCheck());
+        assertFalse(health.tryStartCheck());
+        health.recordFailure();
+        health.endCheck();
+
+        assertFalse(health.isUp());
+        assertEquals(1, health.getConsecutiveFailures());
+        assertFalse(health.tryStartCheck());
+
+        Thread.sleep(60);
+        assertTrue(health.tryStartCheck());
+        health.recordPing(Duration.ofMillis(12));
+        health.endCheck();
+
+        assertTrue(health.isUp());
+        assertEquals(0, health.getConsecutiveFailures());
+        assertEquals(12L, health.getLastPingMillis());
+        assertEquals(1, pingLatency.count());
+        assertTrue(health.tryStartCheck());
+    }
+
+    @Test
+    void uptimeStartsOverWhenMarkedDownAndBackUp() throws InterruptedException {
+        ServerHealth health = new ServerHealth(new McpServerProperties.HealthCheckSettings(),
+            Timer.builder("test.ping").register(new SimpleMeterRegistry()));
+        health.recordUp();
+        Thread.sleep(1100);
+        assertEquals(1, health.getUptimeSeconds());
+
+        health.markDown();
+
+        assertFalse(health.isUp());
+        assertEquals(0, health.getUptimeSeconds());
+        // Reconnected at once, not after a backoff
+        assertTrue(health.tryStartCheck());
+        health.recordUp();
+        assertEquals(0, health.getUptimeSeconds());
+    }
+}
@@ -0,0 +1,80 @@
+package com.interview.mcp;
+
+import com.interview.mcp.service.SingleFlight;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for request coalescing
+ */
+class SingleFlightTest {
+
+    @Test
+    void identicalCallsInFlightShareOneUpstreamCall() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        Mono<String> first = singleFlight.execute("key", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = singleFlight.execute("key", () -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just("unused");
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+            .then(() -> upstream.tryEmitValue("result"))
+            .assertNext(results -> {
+                assertEquals("result", results.getT1());
+                assertEquals("result", results.getT2());
+            })
+            .verifyComplete();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, singleFlight.getDeduplicatedCalls());
+        assertEquals(0, singleFlight.getInFlightCalls());
+    }
+
+    @Test
+    void sharedCallIsCancelledOnlyWhenAllCallersCancel() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> upstream = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute("key", () -> upstream).subscribe();
+        Disposable second = singleFlight.execute("key", () -> upstream).subscribe();
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.getInFlightCalls());
+    }
+
+    @Test
+    void completedCallsAreNotReused() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute("key", () -> Mono.fromSupplier(upstreamCalls::incrementAndGet)))
+            .expectNext(1)
+            .verifyComplete();
+        StepVerifier.create(singleFlight.execute("key", () -> Mono.fromSupplier(upstreamCalls::incrementAndGet)))
+            .expectNext(2)
+            .verifyComplete();
+
+        assertEquals(0, singleFlight.getDeduplicatedCalls());
+    }
+}
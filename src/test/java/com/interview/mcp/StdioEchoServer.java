@@ -0,0 +1,101 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MCP server speaking newline-delimited JSON-RPC on stdin/stdout, started as a child
+ * process by the STDIO transport tests.
+ *
+ * Tools: "echo" answers with its arguments as text after the delayMs argument, on its
+ * own thread so later calls can overtake it; "pid" answers with the process id;
+ * "crash" exits at once; "close-stdin" stops reading input but keeps running;
+ * "ignore-eof" keeps running once input ends, until the process is killed.
+ */
+public final class StdioEchoServer {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final PrintStream out =
+        new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+    private static volatile boolean keepRunning;
+
+    private StdioEchoServer() {}
+
+    public static void main(String[] args) throws Exception {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                handle(objectMapper.readTree(line));
+            }
+        } catch (IOException e) {
+            // Input closed by close-stdin
+        }
+        if (keepRunning) {
+            Thread.sleep(Long.MAX_VALUE);
+        }
+    }
+
+    private static void handle(JsonNode request) throws IOException {
+        if (!request.has("id")) {
+            return;
+        }
+        JsonNode id = request.get("id");
+        switch (request.path("method").asText()) {
+            case "initialize" -> respond(id, Map.of("protocolVersion", "2024-11-05", "capabilities", Map.of()));
+            case "tools/list" -> respond(id, Map.of("tools", List.of(Map.of("name", "echo"), Map.of("name", "pid"))));
+            case "resources/list" -> respond(id, Map.of("resources", List.of()));
+            case "tools/call" -> callTool(id, request.path("params"));
+            default -> write(Map.of("jsonrpc", "2.0", "id", id,
+                "error", Map.of("code", -32601, "message", "Method not found")));
+        }
+    }
+
+    private static void callTool(JsonNode id, JsonNode params) throws IOException {
+        JsonNode arguments = params.path("arguments");
+        switch (params.path("name").asText()) {
+            case "echo" -> new Thread(() -> {
+                try {
+                    Thread.sleep(arguments.path("delayMs").asLong());
+                    respond(id, text(arguments.toString()));
+                } catch (Exception e) {
+                    // Exiting
+                }
+            }).start();
+            case "pid" -> respond(id, text(String.valueOf(ProcessHandle.current().pid())));
+            case "crash" -> Runtime.getRuntime().halt(1);
+            case "close-stdin" -> {
+                keepRunning = true;
+                respond(id, text("closing"));
+                System.in.close();
+            }
+            case "ignore-eof" -> {
+                keepRunning = true;
+                respond(id, text("ignoring"));
+            }
+            default -> respond(id, Map.of("content", List.of(), "isError", true));
+        }
+    }
+
+    private static Map<String, Object> text(String text) {
+        return Map.of("content", List.of(Map.of("type", "text", "text", text)), "isError", false);
+    }
+
+    private static void respond(JsonNode id, Object result) throws IOException {
+        write(Map.of("jsonrpc", "2.0", "id", id, "result", result));
+    }
+
+    private static synchronized void write(Object message) throws IOException {
+        out.println(objectMapper.writeValueAsString(message));
+    }
+}
@@ -0,0 +1,140 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.StdioMcpServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Simple tests for the STDIO transport against a child process
+ */
+class StdioMcpServerConnectionTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StdioMcpServerConnection connection = new StdioMcpServerConnection("test", null,
+        Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+        List.of("-cp", System.getProperty("java.class.path"), StdioEchoServer.class.getName()),
+        objectMapper, Schedulers.boundedElastic());
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    void responsesArrivingOutOfOrderAreMatchedToTheirRequests() throws Exception {
+        connection.initialize();
+
+        // The slowest call is sent first, so the responses come back in reverse
+        List<String> results = Flux.just(400, 200, 0)
+            .flatMapSequential(delay -> connection.callToolAsync("echo", Map.of("delayMs", delay)))
+            .map(StdioMcpServerConnectionTest::text)
+            .collectList()
+            .block(TIMEOUT);
+
+        assertEquals(List.of("{\"delayMs\":400}", "{\"delayMs\":200}", "{\"delayMs\":0}"), results);
+    }
+
+    @Test
+    void argumentsThatCannotBeSerializedFailOnlyTheirCall() throws Exception {
+        connection.initialize();
+
+        Exception error = assertThrows(Exception.class,
+            () -> connection.callToolAsync("echo", Map.of("value", new Object())).block(TIMEOUT));
+
+        assertInstanceOf(IllegalArgumentException.class, error);
+        assertEquals("{\"q\":\"next\"}", text(connection.callToolAsync("echo", Map.of("q", "next")).block(TIMEOUT)));
+    }
+
+    @Test
+    void crashedProcessIsRestarted() throws Exception {
+        connection.initialize();
+        long pid = pid();
+
+        assertThrows(Exception.class, () -> connection.callToolAsync("crash", Map.of()).block(TIMEOUT));
+
+        assertNotEquals(pid, awaitNewProcess(pid));
+        assertTrue(connection.isConnected());
+    }
+
+    @Test
+    void processThatStopsReadingIsRestarted() throws Exception {
+        connection.initialize();
+        long pid = pid();
+        connection.callToolAsync("close-stdin", Map.of()).block(TIMEOUT);
+
+        // Still running, but its input can no longer be written
+        assertThrows(Exception.class, () -> connection.callToolAsync("echo", Map.of()).block(TIMEOUT));
+
+        assertNotEquals(pid, awaitNewProcess(pid));
+        // The old process is shut down in the background once stdin is closed
+        ProcessHandle process = ProcessHandle.of(pid).orElse(null);
+        if (process != null) {
+            process.onExit().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void closeKillsProcessThatIgnoresEndOfInput() throws Exception {
+        connection.initialize();
+        long pid = pid();
+        connection.callToolAsync("ignore-eof", Map.of()).block(TIMEOUT);
+
+        // Returns at once, leaving the process to be killed in the background
+        long start = System.nanoTime();
+        connection.close();
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+
+        ProcessHandle process = ProcessHandle.of(pid).orElse(null);
+        if (process != null) {
+            process.onExit().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        assertFalse(connection.isConnected());
+    }
+
+    private long pid() {
+        return Long.parseLong(text(connection.callToolAsync("pid", Map.of()).block(TIMEOUT)));
+    }
+
+    /**
+     * Wait for the connection to come back with another process
+     */
+    private long awaitNewProcess(long previousPid) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                long pid = pid();
+                if (pid != previousPid) {
+                    return pid;
+                }
+            } catch (RuntimeException e) {
+                // Not restarted yet
+            }
+            Thread.sleep(200);
+        }
+        return fail("MCP server process was not restarted");
+    }
+
+    private static String text(McpSchema.CallToolResult result) {
+        return ((McpSchema.TextContent) result.content().get(0)).text();
+    }
+}
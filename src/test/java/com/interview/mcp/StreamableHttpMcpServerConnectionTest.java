@@ -0,0 +1,263 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.McpMetrics;
+import com.interview.mcp.service.StreamableHttpMcpServerConnection;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for the Streamable HTTP transport against an in-process server
+ */
+class StreamableHttpMcpServerConnectionTest {
+
+    // Spacing and escapes a decoded result would not keep
+    private static final String PLAIN_RESULT =
+        "{ \"content\": [{\"type\":\"text\",\"text\":\"caf\\u00e9 \\\"quoted\\\"\"}], \"isError\": true }";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> sessionHeaders = new CopyOnWriteArrayList<>();
+    private final List<String> endedSessions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger eventStreamsOpened = new AtomicInteger();
+    private volatile boolean offerEventStream;
+    private volatile boolean failPings;
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/mcp", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void toolResultAndProgressArriveOverEventStreamWithinSession() throws Exception {
+        StreamableHttpMcpServerConnection connection = new StreamableHttpMcpServerConnection("test",
+            "http://127.0.0.1:" + server.getAddress().getPort(), WebClient.create(), objectMapper, Schedulers.boundedElastic());
+        connection.initialize();
+        List<McpSchema.ProgressNotification> progress = new CopyOnWriteArrayList<>();
+        connection.progressNotifications().subscribe(progress::add);
+
+        McpSchema.CallToolResult result = connection.callToolAsync("echo", Map.of("q", "hi"), "progress-1")
+            .block(Duration.ofSeconds(5));
+
+        assertFalse(result.isError());
+        assertEquals(List.of("echo"), connection.getAvailableTools());
+        assertEquals(1, progress.size());
+        assertEquals("progress-1", progress.get(0).progressToken());
+        assertEquals(50.0, progress.get(0).progress());
+        // Everything after initialize carries the session the server assigned
+        assertTrue(sessionHeaders.size() > 1);
+        assertEquals("none", sessionHeaders.get(0));
+        assertTrue(sessionHeaders.subList(1, sessionHeaders.size()).stream().allMatch("session-1"::equals));
+        connection.close();
+    }
+
+    @Test
+    void toolCallIsTimedAndSizedPerServerAndTool() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StreamableHttpMcpServerConnection connection = new StreamableHttpMcpServerConnection("test",
+            "http://127.0.0.1:" + server.getAddress().getPort(), WebClient.create(), objectMapper, Schedulers.boundedElastic());
+        connection.setMetrics(new McpMetrics(registry, "test"));
+        connection.initialize();
+
+        connection.callToolAsync("echo", Map.of("q", "hi")).block(Duration.ofSeconds(5));
+
+        assertEquals(1, registry.get("mcp.requests")
+            .tags("server", "test", "method", "tools/call", "tool", "echo", "outcome", "success").timer().count());
+        assertTrue(registry.get("mcp.request.size").tags("method", "tools/call").summary().totalAmount() > 0);
+        assertTrue(registry.get("mcp.response.size").tags("method", "tools/call").summary().totalAmount() > 0);
+        assertEquals(1.0, registry.get("mcp.catalog.size").tags("kind", "tools").gauge().value());
+        assertEquals(0.0, registry.get("mcp.requests.in.flight").gauge().value());
+
+        connection.close();
+        assertTrue(registry.find("mcp.requests").meters().isEmpty());
+    }
+
+    @Test
+    void closeOnReactiveThreadEndsSessionWithoutBlocking() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StreamableHttpMcpServerConnection connection = new StreamableHttpMcpServerConnection("test",
+            "http://127.0.0.1:" + server.getAddress().getPort(), WebClient.create(), objectMapper, Schedulers.boundedElastic());
+        connection.setMetrics(new McpMetrics(registry, "test"));
+        connection.initialize();
+
+        // As when a failed connection is closed from the reactive error path, where blocking is not allowed
+        Mono.fromCallable(() -> {
+                connection.close();
+                return true;
+            })
+            .subscribeOn(Schedulers.parallel())
+            .block(Duration.ofSeconds(5));
+
+        assertFalse(connection.isConnected());
+        assertTrue(registry.find("mcp.requests").meters().isEmpty());
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (endedSessions.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(List.of("session-1"), endedSessions);
+    }
+
+    @Test
+    void rawToolResultIsTheResultAsTheServerSentIt() throws Exception {
+        StreamableHttpMcpServerConnection connection = new StreamableHttpMcpServerConnection("test",
+            "http://127.0.0.1:" + server.getAddress().getPort(), WebClient.create(), objectMapper, Schedulers.boundedElastic());
+        connection.initialize();
+
+        // Answered with a JSON body, whose result bytes are kept as they are
+        McpSchema.RawCallToolResult plain = connection.callToolRawAsync("plain", Map.of()).block(Duration.ofSeconds(5));
+        // Answered on an event stream
+        McpSchema.RawCallToolResult streamed = connection.callToolRawAsync("echo", Map.of()).block(Duration.ofSeconds(5));
+
+        assertTrue(plain.isError());
+        assertEquals(PLAIN_RESULT, plain.json().toString(StandardCharsets.UTF_8));
+        assertFalse(streamed.isError());
+        assertEquals("hi", objectMapper.readTree(streamed.json().toString(StandardCharsets.UTF_8))
+            .at("/content/0/text").asText());
+        plain.release();
+        streamed.release();
+        connection.close();
+    }
+
+    @Test
+    void resourceListIsFollowedAcrossPages() throws Exception {
+        StreamableHttpMcpServerConnection connection = new StreamableHttpMcpServerConnection("test",
+            "http://127.0.0.1:" + server.getAddress().getPort(), WebClient.create(), objectMapper, Schedulers.boundedElastic());
+        connection.initialize();
+
+        assertEquals(List.of("file:///a", "file:///b"),
+            connection.listResources().stream().map(McpSchema.Resource::uri).toList());
+        assertTrue(connection.findResource("file:///b").isPresent());
+        connection.close();
+    }
+
+    @Test
+    void endedEventStreamIsNotReopenedOnceAPingFails() throws Exception {
+        // Every GET is answered with a stream that ends at once, so a live connection keeps reopening it
+        offerEventStream = true;
+        StreamableHttpMcpServerConnection connection = new StreamableHttpMcpServerConnection("test",
+            "http://127.0.0.1:" + server.getAddress().getPort(), WebClient.create(), objectMapper, Schedulers.boundedElastic());
+        connection.initialize();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (eventStreamsOpened.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(eventStreamsOpened.get() >= 2);
+
+        failPings = true;
+        assertThrows(Exception.class, () -> connection.pingAsync(Duration.ofSeconds(2)).block());
+        assertFalse(connection.isConnected());
+        Thread.sleep(200);
+        int openedAtFailure = eventStreamsOpened.get();
+        Thread.sleep(2500);
+
+        assertEquals(openedAtFailure, eventStreamsOpened.get());
+        connection.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String session = exchange.getRequestHeaders().getFirst("Mcp-Session-Id");
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            endedSessions.add(session);
+        }
+        if ("GET".equals(exchange.getRequestMethod()) && offerEventStream) {
+            eventStreamsOpened.incrementAndGet();
+            respond(exchange, "text/event-stream", "");
+            return;
+        }
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            // No server-initiated stream and nothing to clean up
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        sessionHeaders.add(session != null ? session : "none");
+
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        if (!request.has("id")) {
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+            return;
+        }
+
+        String method = request.get("method").asText();
+        Object id = request.get("id").asText();
+        if ("ping".equals(method) && failPings) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        if ("tools/call".equals(method) && "plain".equals(request.at("/params/name").asText())) {
+            respond(exchange, "application/json",
+                "{\"jsonrpc\":\"2.0\",\"result\": " + PLAIN_RESULT + " ,\"id\":" + id + "}");
+            return;
+        }
+        if ("tools/call".equals(method)) {
+            Object token = request.path("params").path("_meta").path("progressToken").asText();
+            String events = event(Map.of("jsonrpc", "2.0", "method", "notifications/progress",
+                    "params", Map.of("progressToken", token, "progress", 50)))
+                + event(Map.of("jsonrpc", "2.0", "id", id,
+                    "result", Map.of("content", List.of(Map.of("type", "text", "text", "hi")))));
+            respond(exchange, "text/event-stream", events);
+            return;
+        }
+
+        Object result = switch (method) {
+            case "initialize" -> Map.of("protocolVersion", "2025-03-26", "capabilities", Map.of());
+            case "tools/list" -> Map.of("tools", List.of(Map.of("name", "echo")));
+            // Two pages of resources
+            case "resources/list" -> request.path("params").has("cursor")
+                ? Map.of("resources", List.of(Map.of("uri", "file:///b", "name", "b")))
+                : Map.of("resources", List.of(Map.of("uri", "file:///a", "name", "a")), "nextCursor", "page-2");
+            default -> Map.of();
+        };
+        if ("initialize".equals(method)) {
+            exchange.getResponseHeaders().set("Mcp-Session-Id", "session-1");
+        }
+        respond(exchange, "application/json",
+            objectMapper.writeValueAsString(Map.of("jsonrpc", "2.0", "id", id, "result", result)));
+    }
+
+    private String event(Map<String, Object> message) throws IOException {
+        return "data: " + objectMapper.writeValueAsString(message) + "\n\n";
+    }
+
+    private void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
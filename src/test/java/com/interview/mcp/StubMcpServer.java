@@ -0,0 +1,184 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process MCP server over plain HTTP for tests that go through the service.
+ *
+ * Every tool answers with its arguments as text content, after sleeping for the
+ * delayMs argument if there is one; a call with "fail": true is answered with a
+ * JSON-RPC error instead. Batches are answered in reverse order, so their results
+ * can only be matched back by id.
+ */
+class StubMcpServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, AtomicInteger> toolCalls = new ConcurrentHashMap<>();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger initializations = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private volatile boolean stalled;
+
+    StubMcpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/mcp", this::handle);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Requests for the tool that reached the server, alone or in a batch
+     */
+    int toolCalls(String toolName) {
+        AtomicInteger calls = toolCalls.get(toolName);
+        return calls != null ? calls.get() : 0;
+    }
+
+    int batches() {
+        return batches.get();
+    }
+
+    int initializations() {
+        return initializations.get();
+    }
+
+    /**
+     * Answer the next requests with 503 Service Unavailable
+     */
+    void failNextRequests(int count) {
+        failuresLeft.set(count);
+    }
+
+    /**
+     * Accept every request but never answer, until closed
+     */
+    void stall() {
+        stalled = true;
+    }
+
+    @Override
+    public void close() {
+        closed.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = objectMapper.readTree(body);
+        }
+        if (stalled) {
+            try {
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        if (failuresLeft.getAndUpdate(left -> Math.max(left - 1, 0)) > 0) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+
+        JsonNode response;
+        if (request.isArray()) {
+            batches.incrementAndGet();
+            ArrayNode responses = objectMapper.createArrayNode();
+            for (int i = request.size() - 1; i >= 0; i--) {
+                responses.add(respond(request.get(i)));
+            }
+            response = responses;
+        } else {
+            response = request.has("id") ? respond(request) : null;
+        }
+
+        byte[] bytes = response != null ? objectMapper.writeValueAsBytes(response) : new byte[0];
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(bytes.length > 0 ? 200 : 202, bytes.length > 0 ? bytes.length : -1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private ObjectNode respond(JsonNode request) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", request.get("id"));
+
+        switch (request.path("method").asText()) {
+            case "initialize" -> {
+                initializations.incrementAndGet();
+                response.set("result", objectMapper.valueToTree(Map.of(
+                    "protocolVersion", "2024-11-05",
+                    "capabilities", Map.of("tools", Map.of()),
+                    "serverInfo", Map.of("name", "stub", "version", "1.0.0"))));
+            }
+            case "tools/list" -> response.set("result", objectMapper.valueToTree(Map.of(
+                "tools", List.of(Map.of("name", "echo"), Map.of("name", "lookup")))));
+            case "resources/list" -> response.set("result", objectMapper.valueToTree(Map.of("resources", List.of())));
+            case "tools/call" -> {
+                JsonNode params = request.path("params");
+                toolCalls.computeIfAbsent(params.path("name").asText(), name -> new AtomicInteger()).incrementAndGet();
+                JsonNode arguments = params.path("arguments");
+                sleep(arguments.path("delayMs").asLong());
+                if (arguments.path("fail").asBoolean()) {
+                    ObjectNode error = response.putObject("error");
+                    error.put("code", -32000);
+                    error.put("message", "Tool failed");
+                } else {
+                    ObjectNode result = response.putObject("result");
+                    ObjectNode content = result.putArray("content").addObject();
+                    content.put("type", "text");
+                    content.put("text", arguments.toString());
+                    result.put("isError", false);
+                }
+            }
+            case "resources/read" -> response.set("result", objectMapper.valueToTree(Map.of(
+                "contents", List.of(Map.of("uri", request.path("params").path("uri").asText(), "text", "hello")))));
+            case "ping" -> response.putObject("result");
+            default -> {
+                ObjectNode error = response.putObject("error");
+                error.put("code", -32601);
+                error.put("message", "Method not found");
+            }
+        }
+        return response;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.config.McpServerProperties;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.BinaryContentStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for decoding tool result content and spilling its binary payloads
+ */
+class ToolContentTest {
+
+    private static final byte[] PIXELS = "\u0089PNG not really an image".getBytes(StandardCharsets.ISO_8859_1);
+    private static final String PIXELS_BASE64 = Base64.getEncoder().encodeToString(PIXELS);
+    private static final String RESULT = "{\"content\":["
+        + "{\"type\":\"text\",\"text\":\"caption\"},"
+        + "{\"type\":\"image\",\"data\":\"" + PIXELS_BASE64 + "\",\"mimeType\":\"image/png\"},"
+        + "{\"type\":\"resource_link\",\"uri\":\"file:///a.txt\",\"name\":\"a\"}"
+        + "],\"isError\":false}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void contentIsDecodedByTypeAndWrittenBackAsSent() throws Exception {
+        McpSchema.CallToolResult result = objectMapper.readValue(RESULT, McpSchema.CallToolResult.class);
+
+        assertEquals(3, result.content().size());
+        assertEquals("caption", ((McpSchema.TextContent) result.content().get(0)).text());
+        McpSchema.ImageContent image = assertInstanceOf(McpSchema.ImageContent.class, result.content().get(1));
+        assertArrayEquals(PIXELS, image.data().toByteArray());
+        assertTrue(image.data().asByteBuffer().isDirect());
+        // A type this client does not know keeps every field
+        assertEquals("resource_link", result.content().get(2).type());
+
+        JsonNode written = objectMapper.valueToTree(result.content());
+        assertEquals(objectMapper.readTree(RESULT).get("content"), written);
+    }
+
+    @Test
+    void largePayloadIsDecodedIntoBufferOfExactSize() throws Exception {
+        byte[] audio = new byte[3 * 1024 * 1024 + 7];
+        new Random(42).nextBytes(audio);
+        String json = "{\"type\":\"audio\",\"data\":\"" + Base64.getEncoder().encodeToString(audio)
+            + "\",\"mimeType\":\"audio/wav\"}";
+
+        McpSchema.AudioContent content = (McpSchema.AudioContent) objectMapper.readValue(json, McpSchema.Content.class);
+
+        ByteBuffer decoded = content.data().asByteBuffer();
+        assertTrue(decoded.isDirect());
+        assertEquals(audio.length, decoded.capacity());
+        assertArrayEquals(audio, content.data().toByteArray());
+    }
+
+    @Test
+    void spilledPayloadsAreReplacedByHandles(@TempDir Path directory) throws Exception {
+        McpServerProperties properties = new McpServerProperties();
+        properties.getContent().setSpillDirectory(directory.toString());
+        BinaryContentStore store = new BinaryContentStore();
+        ReflectionTestUtils.setField(store, "mcpServerProperties", properties);
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        store.initialize();
+
+        List<McpSchema.Content> content = objectMapper.readValue(RESULT, McpSchema.CallToolResult.class).content();
+        List<?> spilled = (List<?>) store.spill(content);
+
+        McpSchema.ImageContent image = (McpSchema.ImageContent) spilled.get(1);
+        assertTrue(image.data().isSpilled());
+        assertEquals(PIXELS.length, objectMapper.valueToTree(image).at("/data/size").asLong());
+        // The original content is left as it was
+        assertFalse(((McpSchema.ImageContent) content.get(1)).data().isSpilled());
+
+        BinaryContentStore.SpilledFile file = store.find(image.data().handle()).orElseThrow();
+        assertEquals("image/png", file.mimeType());
+        assertArrayEquals(PIXELS, Files.readAllBytes(file.path()));
+
+        assertTrue(store.delete(image.data().handle()));
+        assertFalse(Files.exists(file.path()));
+        assertTrue(store.find(image.data().handle()).isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package com.interview.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.interview.mcp.model.McpToolInfo;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.ToolRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for the tool registry
+ */
+class ToolRegistryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ToolRegistry registry = new ToolRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "objectMapper", objectMapper);
+        registry.initialize();
+    }
+
+    @Test
+    void toolsAreFoundByServer() throws Exception {
+        registry.register("weather", "http://weather", List.of(tool("forecast"), tool("alerts")));
+        registry.register("search", "http://search", List.of(tool("forecast")));
+
+        assertEquals("http://weather", registry.findTool("weather", "alerts").orElseThrow().getServerUrl());
+        assertTrue(registry.findTool("search", "alerts").isEmpty());
+        assertEquals(List.of("forecast", "alerts"),
+            registry.getTools("weather").stream().map(McpToolInfo::getName).toList());
+        assertTrue(registry.getTools("maps").isEmpty());
+
+        JsonNode json = objectMapper.readTree(registry.getToolsJson());
+        assertEquals(3, json.size());
+        assertEquals("alerts", json.get(1).get("name").asText());
+    }
+
+    @Test
+    void readersKeepTheSnapshotTheyWereGiven() {
+        registry.register("weather", "http://weather", List.of(tool("forecast"), tool("alerts")));
+        List<McpToolInfo> before = registry.getTools();
+
+        registry.register("weather", "http://weather", List.of(tool("forecast")));
+        registry.remove("weather");
+
+        assertEquals(2, before.size());
+        assertThrows(UnsupportedOperationException.class, () -> before.remove(0));
+        assertTrue(registry.getTools().isEmpty());
+        assertTrue(registry.getTools("weather").isEmpty());
+        assertEquals("[]", new String(registry.getToolsJson()));
+    }
+
+    private static McpSchema.Tool tool(String name) {
+        return new McpSchema.Tool(name, "Tool " + name, null);
+    }
+}
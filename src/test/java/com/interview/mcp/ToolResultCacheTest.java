@@ -0,0 +1,106 @@
+package com.interview.mcp;
+
+import com.interview.mcp.config.McpServerProperties;
+import com.interview.mcp.model.McpApiCallResult;
+import com.interview.mcp.schema.BinaryData;
+import com.interview.mcp.schema.McpSchema;
+import com.interview.mcp.service.ToolCallKey;
+import com.interview.mcp.service.ToolResultCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simple tests for caching tool results
+ */
+class ToolResultCacheTest {
+
+    private final McpServerProperties properties = new McpServerProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ToolResultCache cache = new ToolResultCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "mcpServerProperties", properties);
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        cache.initialize();
+    }
+
+    @Test
+    void repeatedCallIsAnsweredFromCache() {
+        ToolCallKey key = ToolCallKey.of("weather", "forecast", Map.of("city", "Oslo", "days", 3));
+
+        McpApiCallResult first = call(key, Duration.ofMinutes(1), text("sunny"));
+        McpApiCallResult second = call(ToolCallKey.of("weather", "forecast", Map.of("days", 3, "city", "Oslo")),
+            Duration.ofMinutes(1), text("rain"));
+
+        assertEquals(1, loads.get());
+        assertEquals(first.getData(), second.getData());
+        assertEquals(1.0, meterRegistry.get("mcp.cache.hits").counter().count());
+    }
+
+    @Test
+    void expiredResultIsLoadedAgain() throws InterruptedException {
+        ToolCallKey key = ToolCallKey.of("weather", "forecast", Map.of("city", "Oslo"));
+
+        call(key, Duration.ofMillis(20), text("sunny"));
+        Thread.sleep(50);
+        McpApiCallResult reloaded = call(key, Duration.ofMillis(20), text("rain"));
+
+        assertEquals(2, loads.get());
+        assertEquals(text("rain").getData(), reloaded.getData());
+        assertEquals(1.0, meterRegistry.get("mcp.cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void leastRecentlyUsedResultIsEvictedOnceSizeIsExceeded() {
+        properties.getCache().setMaxSize(DataSize.ofBytes(300));
+        ToolCallKey oslo = ToolCallKey.of("weather", "forecast", Map.of("city", "Oslo"));
+        ToolCallKey rome = ToolCallKey.of("weather", "forecast", Map.of("city", "Rome"));
+
+        call(oslo, Duration.ofMinutes(1), text("x".repeat(200)));
+        call(rome, Duration.ofMinutes(1), text("y".repeat(200)));
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.weight() <= 300);
+        call(oslo, Duration.ofMinutes(1), text("z"));
+        assertEquals(3, loads.get());
+        assertEquals(1.0, meterRegistry.get("mcp.cache.evictions").tag("cause", "capacity").counter().count());
+    }
+
+    @Test
+    void resultWithBinaryContentIsNotCached() {
+        ToolCallKey key = ToolCallKey.of("charts", "render", Map.of("id", 1));
+        McpApiCallResult image = new McpApiCallResult(true, "Success",
+            List.of(new McpSchema.ImageContent(BinaryData.of(new byte[] {1, 2, 3}), "image/png", null)));
+
+        call(key, Duration.ofMinutes(1), image);
+        call(key, Duration.ofMinutes(1), image);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    private McpApiCallResult call(ToolCallKey key, Duration ttl, McpApiCallResult result) {
+        return cache.get(key, ttl, () -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return result;
+        })).block();
+    }
+
+    private static McpApiCallResult text(String text) {
+        return new McpApiCallResult(true, "Success", List.of(new McpSchema.TextContent(text, null)));
+    }
+}